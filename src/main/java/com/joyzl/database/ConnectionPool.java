@@ -0,0 +1,1377 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * 数据库连接池
+ * <p>
+ * 借用和归还连接均不经过全局锁：<br>
+ * 1.优先从当前线程最近归还的连接中借用，连接通常在同一线程中反复借还<br>
+ * 2.其次扫描共享连接列表，通过CAS抢占空闲连接<br>
+ * 3.仅当有线程等待时，归还的连接才通过交接队列直接传递给等待线程
+ * </p>
+ * <p>
+ * 连接池中的连接数量不超过 maximum，已满且无空闲连接时新建溢出连接，溢出连接归还时直接关闭；
+ * 如果限制连接总数(bounded)则不创建溢出连接，借用线程按先后顺序排队等待归还的连接，超时抛出
+ * {@link SQLTransientConnectionException}。
+ * </p>
+ * <p>
+ * 连接归还后在免验证窗口内再次借出时不执行 isValid 验证，空闲连接的保活验证由后台线程执行。
+ * </p>
+ * <p>
+ * 连接池创建时并行预建最小空闲连接，连接被移除或借出导致空闲连接不足时由后台线程补足。
+ * </p>
+ * <p>
+ * 连接池中的连接仅由后台创建线程新建，并行数和每秒创建数可限制，借用线程与其它等待线程一同等待新建或归还的连接；
+ * 数据库重启后大量借用线程不会同时发起连接，创建失败时交给一个等待线程使其立即失败。
+ * </p>
+ * <p>
+ * 共享列表中优先借出最近归还的连接(后进先出)，常用连接保持活跃，多余连接长期空闲后由后台线程按空闲超时关闭，
+ * 连接池收缩至最小空闲连接数；连接超过最长存活时间(随机提前以错开)后关闭并补足，避免被数据库服务端超时断开。
+ * </p>
+ * <p>
+ * 连续创建连接失败时熔断，熔断期间仍借用空闲连接，须新建连接时立即抛出 {@link SQLTransientConnectionException} 而不尝试连接数据库，
+ * 后台线程按指数退避探测数据库，恢复后解除熔断；{@link #isHealthy()} 返回缓存的状态，可频繁调用。
+ * </p>
+ * <p>
+ * 启用泄漏检测时后台线程报告借出超过阈值的连接，借用位置按采样记录，未启用时借用路径没有额外开销。
+ * </p>
+ * <p>
+ * 连接池选项可在运行时通过 {@link #reconfigure(PoolOptions)} 修改(并发限制除外)，无需重建连接池；
+ * 缩小时多余的空闲连接立即关闭，使用中的连接归还时关闭，不影响正在执行的语句。
+ * </p>
+ * <p>
+ * 启用语句缓存时每个连接按最近使用缓存预编译语句，见 {@link StatementCache}。
+ * </p>
+ * <p>
+ * 启用容量调节时按借用等待、利用率和占用时长在最小空闲连接数和最大连接数之间调节容量，或仅给出建议容量，见 {@link PoolSizer}。
+ * </p>
+ * <p>
+ * 监控指标以分段计数器记录，不增加借用时的竞争，通过 {@link ConnectionPoolMXBean} 以 JMX 发布。
+ * </p>
+ * <p>
+ * 借用等待和交接均基于 java.util.concurrent 实现，不使用 synchronized，虚拟线程等待时应不占用载体线程
+ * (尚未在 Java 21 上以 jdk.tracePinnedThreads 验证，见 TestVirtualThreads)；
+ * 虚拟线程不保留最近归还的连接。可选的并发限制(limited)以公平信号量将同时借用连接的线程数限制为最大连接数，
+ * 大量虚拟线程在信号量上排队，而不是在交接队列上竞争。
+ * </p>
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+public final class ConnectionPool implements ConnectionPoolMXBean {
+
+	/**
+	 * 数据库连接创建
+	 */
+	@FunctionalInterface
+	public interface Factory {
+		Connection create() throws SQLException;
+	}
+
+	// 线程最近归还连接的保留数量
+	private final static int LOCAL_SIZE = 16;
+	// 后台维护最长间隔(毫秒)
+	private final static long HOUSEKEEPING = 30000;
+	// 报告未记录借用位置的泄漏后，每次借用均记录借用位置的时长(毫秒)
+	private final static long TRACING = 60000;
+	// 连续创建连接失败达到此次数时熔断
+	private final static int FAILURES = 3;
+	// 熔断后探测数据库的最短和最长间隔(毫秒)，按指数退避
+	private final static long BACKOFF_MIN = 500;
+	private final static long BACKOFF_MAX = 30000;
+	// 创建连接失败时交给等待线程的标记
+	private final static PoolEntry FAILED = new PoolEntry();
+	// 已注册的 JMX 名称
+	private final static Map<ObjectName, ConnectionPool> REGISTERED = new ConcurrentHashMap<>();
+	// Thread.isVirtual() Java 21
+	private final static MethodHandle IS_VIRTUAL;
+	static {
+		MethodHandle handle;
+		try {
+			handle = MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+		} catch (ReflectiveOperationException e) {
+			handle = null;
+		}
+		IS_VIRTUAL = handle;
+	}
+
+	private final Factory factory;
+	// 以下选项可在运行时修改
+	private volatile int maximum;
+	// 当前容量，自动调节时小于等于最大连接数
+	private volatile int capacity;
+	// 容量调节，未启用时为 null
+	private volatile PoolSizer sizer;
+	private volatile int minimumIdle;
+	private volatile boolean bounded;
+	private volatile long borrowTimeout;
+	private volatile long validationWindow;
+	private volatile int validationTimeout;
+	private volatile long keepaliveTime;
+	private volatile long maxLifetime;
+	private volatile long idleTimeout;
+	private volatile long leakDetectionThreshold;
+	private volatile int leakTraceRate;
+	// 此时间(毫秒)之前每次借用均记录借用位置，报告未记录位置的泄漏后设置
+	private volatile long tracing;
+	// 并发借用限制，未启用时为 null
+	private final Limiter limiter;
+	// 后台维护线程
+	private final ScheduledExecutorService housekeeper;
+	// 后台维护任务，修改选项时重新安排
+	private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+	// 后台创建连接线程
+	private final ThreadPoolExecutor creator;
+	// 创建连接的最小间隔(纳秒)，0 不限制
+	private volatile long creationInterval;
+	// 下一次允许创建连接的时间(纳秒)
+	private final AtomicLong creationSlot = new AtomicLong(System.nanoTime());
+	// 已提交未完成的连接创建
+	private final AtomicInteger pending = new AtomicInteger();
+	// 共享连接列表，读多写少
+	private final CopyOnWriteArrayList<PoolEntry> entries = new CopyOnWriteArrayList<>();
+	// 线程最近归还的连接
+	private final ThreadLocal<ArrayList<PoolEntry>> locals = ThreadLocal.withInitial(() -> new ArrayList<>(LOCAL_SIZE));
+	// 公平交接队列，仅当有等待线程时使用
+	private final SynchronousQueue<PoolEntry> handoff = new SynchronousQueue<>(true);
+	private final AtomicInteger waiters = new AtomicInteger();
+	// 创建连接失败次数，等待新建连接的线程据此发现登记等待之前的失败
+	private final AtomicInteger abandons = new AtomicInteger();
+	// 连接池中的连接数量(含正在创建的)
+	private final AtomicInteger size = new AtomicInteger();
+	// 借用次数
+	private final LongAdder borrows = new LongAdder();
+	// 借出未归还的连接数量
+	private final LongAdder active = new LongAdder();
+	// 借用等待次数
+	private final LongAdder waits = new LongAdder();
+	// 借用超时次数
+	private final LongAdder timeouts = new LongAdder();
+	// 借用耗时分布
+	private final Histogram borrowTime = new Histogram();
+	// 创建连接耗时分布
+	private final Histogram creationTime = new Histogram();
+	// 创建连接失败次数
+	private final LongAdder creationFailures = new LongAdder();
+	// 验证失败次数
+	private final LongAdder validationFailures = new LongAdder();
+	// 疑似泄漏次数
+	private final LongAdder leaks = new LongAdder();
+	// 连接占用总时长(纳秒)
+	private final LongAdder held = new LongAdder();
+	// 跳过的会话状态设置次数
+	private final LongAdder skips = new LongAdder();
+	// 预编译语句缓存命中、未命中和淘汰次数
+	private final LongAdder statementHits = new LongAdder();
+	private final LongAdder statementMisses = new LongAdder();
+	private final LongAdder statementEvictions = new LongAdder();
+	// JMX 注册名称，未注册时为 null
+	private volatile ObjectName objectName;
+	// 名称，用于输出信息
+	private volatile String name = "";
+	// 连续创建连接失败次数
+	private final AtomicInteger failures = new AtomicInteger();
+	// 是否熔断
+	private final AtomicBoolean broken = new AtomicBoolean();
+	// 最近一次创建连接失败的原因
+	private volatile Throwable failure;
+	private volatile boolean closed;
+	// 作为从库时的复制延迟(毫秒)，由数据源心跳监测更新
+	volatile long lag;
+	// 驱动不支持 isValid 时执行的验证查询，由数据源按方言设置
+	volatile String validationQuery;
+	// 每个连接缓存的预编译语句数量，0 不缓存
+	volatile int statementCacheSize;
+
+	/**
+	 * 创建数据库连接池
+	 *
+	 * @param maximum 最大连接数
+	 * @param factory 数据库连接创建
+	 */
+	public ConnectionPool(int maximum, Factory factory) {
+		this(new PoolOptions(maximum), factory);
+	}
+
+	/**
+	 * 创建数据库连接池
+	 *
+	 * @param options 连接池选项
+	 * @param factory 数据库连接创建
+	 */
+	public ConnectionPool(PoolOptions options, Factory factory) {
+		if (options == null) {
+			throw new IllegalArgumentException("连接池选项不能为空");
+		}
+		if (factory == null) {
+			throw new IllegalArgumentException("数据库连接创建不能为空");
+		}
+		this.factory = factory;
+		limiter = options.isLimited() ? new Limiter(options.getMaximum()) : null;
+		housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "database-housekeeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		creator = new ThreadPoolExecutor(options.getCreationConcurrency(), options.getCreationConcurrency(), 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			final Thread thread = new Thread(runnable, "database-creator");
+			thread.setDaemon(true);
+			return thread;
+		});
+		creator.allowCoreThreadTimeOut(true);
+		configure(options);
+		// 预建最小空闲连接
+		replenish();
+	}
+
+	/**
+	 * 运行时修改连接池选项，无需重建连接池；
+	 * 缩小时多余的空闲连接立即关闭，使用中的连接归还时关闭，不影响正在执行的语句；
+	 * 扩大时按最小空闲连接数和等待线程数补足连接。最长存活时间的修改应用于现有连接。
+	 * 初始化等待时间仅在创建时有效，并发限制不能修改。
+	 *
+	 * @param options 连接池选项
+	 */
+	public synchronized void reconfigure(PoolOptions options) {
+		if (options == null) {
+			throw new IllegalArgumentException("连接池选项不能为空");
+		}
+		if (options.isLimited() != (limiter != null)) {
+			throw new IllegalArgumentException("并发限制不能在运行时修改");
+		}
+		if (closed) {
+			throw new IllegalStateException("连接池已关闭");
+		}
+		final int previous = maximum;
+		final int concurrency = options.getCreationConcurrency();
+		if (concurrency > creator.getMaximumPoolSize()) {
+			creator.setMaximumPoolSize(concurrency);
+			creator.setCorePoolSize(concurrency);
+		} else {
+			creator.setCorePoolSize(concurrency);
+			creator.setMaximumPoolSize(concurrency);
+		}
+		configure(options);
+		if (limiter != null) {
+			limiter.adjust(maximum - previous);
+		}
+		for (PoolEntry entry : entries) {
+			expire(entry);
+		}
+		resize(maximum);
+		replenish();
+	}
+
+	/**
+	 * 应用连接池选项并重新安排后台维护任务
+	 */
+	private void configure(PoolOptions options) {
+		maximum = options.getMaximum();
+		minimumIdle = Math.min(options.getMinimumIdle(), maximum);
+		capacity = maximum;
+		bounded = options.isBounded();
+		borrowTimeout = options.getBorrowTimeout();
+		validationWindow = options.getValidationWindow();
+		// isValid 以秒为单位
+		validationTimeout = (int) Math.max(1, (options.getValidationTimeout() + 999) / 1000);
+		keepaliveTime = options.getKeepaliveTime();
+		maxLifetime = options.getMaxLifetime();
+		idleTimeout = options.getIdleTimeout();
+		leakDetectionThreshold = options.getLeakDetectionThreshold();
+		leakTraceRate = options.getLeakTraceRate();
+		tracing = 0;
+		creationInterval = options.getCreationRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / options.getCreationRate() : 0;
+		statementCacheSize = options.getStatementCacheSize();
+
+		for (ScheduledFuture<?> task : tasks) {
+			task.cancel(false);
+		}
+		tasks.clear();
+		if (keepaliveTime > 0) {
+			final long period = Math.min(keepaliveTime, HOUSEKEEPING);
+			tasks.add(housekeeper.scheduleWithFixedDelay(this::keepalive, period, period, TimeUnit.MILLISECONDS));
+		}
+		if (maxLifetime > 0 || idleTimeout > 0) {
+			long period = HOUSEKEEPING;
+			if (idleTimeout > 0) {
+				period = Math.min(period, idleTimeout / 2);
+			}
+			if (maxLifetime > 0) {
+				period = Math.min(period, maxLifetime / 2);
+			}
+			period = Math.max(10, period);
+			tasks.add(housekeeper.scheduleWithFixedDelay(this::evict, period, period, TimeUnit.MILLISECONDS));
+		}
+		if (options.getSizing() != PoolOptions.FIXED) {
+			sizer = new PoolSizer(this, Math.max(1, minimumIdle), maximum, options.getSizing() == PoolOptions.ADAPTIVE);
+			tasks.add(housekeeper.scheduleWithFixedDelay(sizer, options.getSizingInterval(), options.getSizingInterval(), TimeUnit.MILLISECONDS));
+		} else {
+			sizer = null;
+		}
+		if (leakDetectionThreshold > 0) {
+			final long period = Math.max(10, Math.min(HOUSEKEEPING, leakDetectionThreshold / 2));
+			tasks.add(housekeeper.scheduleWithFixedDelay(this::detect, period, period, TimeUnit.MILLISECONDS));
+		}
+		if (minimumIdle > 0) {
+			// 定期补足最小空闲连接
+			tasks.add(housekeeper.scheduleWithFixedDelay(this::replenish, HOUSEKEEPING, HOUSEKEEPING, TimeUnit.MILLISECONDS));
+		}
+	}
+
+	/**
+	 * 等待空闲连接达到最小空闲连接数
+	 *
+	 * @param timeout 等待时间
+	 * @param unit 时间单位
+	 * @return true 已达到 / false 超时
+	 */
+	public boolean awaitMinimumIdle(long timeout, TimeUnit unit) {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (idle() < minimumIdle) {
+			if (closed || System.nanoTime() - deadline >= 0) {
+				return false;
+			}
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+			if (Thread.interrupted()) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 借用数据库连接，限制连接总数或并发时按借用等待超时等待，否则不等待直接新建溢出连接
+	 *
+	 * @return PoolEntry
+	 * @throws SQLException
+	 */
+	public PoolEntry borrow() throws SQLException {
+		if (bounded || limiter != null) {
+			return borrow(borrowTimeout, TimeUnit.MILLISECONDS);
+		} else {
+			return borrow(0, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * 借用数据库连接，连接池已满且无空闲连接时等待其它线程归还，超时未获得则新建溢出连接；
+	 * 如果限制连接总数则超时抛出 {@link SQLTransientConnectionException}；
+	 * 连接池未满或有正在新建的连接时等待创建线程新建的连接，等待时间为 0 时按借用等待超时等待
+	 *
+	 * @param timeout 等待时间，0 连接池已满时不等待
+	 * @param unit 时间单位
+	 * @return PoolEntry
+	 * @throws SQLException
+	 */
+	public PoolEntry borrow(long timeout, TimeUnit unit) throws SQLException {
+		if (closed) {
+			throw new SQLException("连接池已关闭");
+		}
+		final long start = System.nanoTime();
+		if (limiter == null) {
+			return lend(take(timeout, unit), start);
+		}
+
+		// 并发限制，在公平信号量上排队
+		long nanos = unit.toNanos(timeout);
+		final long deadline = System.nanoTime() + nanos;
+		try {
+			if (!limiter.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+				waits.increment();
+				if (!limiter.tryAcquire(nanos, TimeUnit.NANOSECONDS)) {
+					timeouts.increment();
+					throw new SQLTransientConnectionException("获取数据库连接超时 " + unit.toMillis(timeout) + "ms，并发借用已达上限 " + maximum + "，等待线程 " + limiter.getQueueLength());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("等待数据库连接时被中断", e);
+		}
+		try {
+			nanos = Math.max(0, deadline - System.nanoTime());
+			final PoolEntry entry = take(nanos, TimeUnit.NANOSECONDS);
+			entry.limited = true;
+			return lend(entry, start);
+		} catch (SQLException | RuntimeException e) {
+			limiter.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * 从连接池借用连接，不受并发限制
+	 */
+	private PoolEntry take(long timeout, TimeUnit unit) throws SQLException {
+		PoolEntry entry;
+		// 1 当前线程最近归还的连接(后进先出)，虚拟线程不保留
+		if (!isVirtual()) {
+			final ArrayList<PoolEntry> local = locals.get();
+			for (int index = local.size() - 1; index >= 0; index--) {
+				entry = local.remove(index);
+				if (entry.acquire() && validate(entry)) {
+					return entry;
+				}
+			}
+		}
+
+		// 2 共享连接列表，优先借用最近归还的连接(后进先出)，验证无效时重新扫描
+		while ((entry = recent()) != null) {
+			if (validate(entry)) {
+				return entry;
+			}
+		}
+
+		long nanos;
+		int abandoned = -1;
+		try {
+			// 3 连接池未满，由创建线程新建连接，借用线程不直接连接数据库；
+			// 熔断时不新建连接，没有借出的连接可等待时立即失败
+			if (broken.get()) {
+				nanos = unit.toNanos(timeout);
+				if (nanos == 0 || size.get() == 0) {
+					throw new SQLTransientConnectionException("数据库不可用，等待恢复", failure);
+				}
+				waits.increment();
+			} else if (reserve()) {
+				abandoned = abandons.get();
+				create();
+				nanos = timeout > 0 ? unit.toNanos(timeout) : TimeUnit.MILLISECONDS.toNanos(borrowTimeout);
+			} else {
+				nanos = unit.toNanos(timeout);
+				if (nanos == 0 && pending.get() > 0) {
+					// 正在新建连接(如数据库恢复时)，等待新建的连接而不是各自新建溢出连接
+					nanos = TimeUnit.MILLISECONDS.toNanos(borrowTimeout);
+					abandoned = abandons.get();
+				}
+				if (nanos > 0) {
+					waits.increment();
+				}
+			}
+			if (nanos > 0) {
+				// 4 按先后顺序等待新建或归还的连接，仅在阻塞等待期间登记为等待线程，
+				// 扫描和验证时归还线程不必自旋交接
+				final long deadline = System.nanoTime() + nanos;
+				do {
+					waiters.incrementAndGet();
+					try {
+						// 登记后再扫描一次，避免错过登记之前归还的连接
+						entry = recent();
+						if (entry == null) {
+							if (abandoned >= 0 && abandons.get() != abandoned) {
+								// 登记之前新建连接已失败，未能交接失败标记
+								throw new SQLTransientConnectionException("创建数据库连接失败", failure);
+							}
+							entry = handoff.poll(nanos, TimeUnit.NANOSECONDS);
+							if (entry == null) {
+								break;
+							}
+							if (entry == FAILED) {
+								throw new SQLTransientConnectionException("创建数据库连接失败", failure);
+							}
+							if (!entry.acquire()) {
+								entry = null;
+							}
+						}
+					} finally {
+						waiters.decrementAndGet();
+					}
+					if (entry != null && validate(entry)) {
+						return entry;
+					}
+					nanos = deadline - System.nanoTime();
+				} while (nanos > 0);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("等待数据库连接时被中断", e);
+		}
+
+		if (bounded) {
+			timeouts.increment();
+			throw new SQLTransientConnectionException("获取数据库连接超时 " + unit.toMillis(timeout) + "ms，连接数 " + size.get() + "/" + capacity + "，等待线程 " + waiters.get());
+		}
+		// 5 溢出连接
+		if (broken.get()) {
+			throw new SQLTransientConnectionException("数据库不可用，等待恢复", failure);
+		}
+		return entry(connect(), false);
+	}
+
+	/**
+	 * 借用共享连接列表中最近归还的空闲连接(后进先出)，被其它线程抢占时重新扫描
+	 *
+	 * @return 已借用的连接 / null 没有空闲连接
+	 */
+	private PoolEntry recent() {
+		PoolEntry recent;
+		do {
+			recent = null;
+			for (PoolEntry entry : entries) {
+				if (entry.state.get() == PoolEntry.IDLE && (recent == null || entry.accessed > recent.accessed)) {
+					recent = entry;
+				}
+			}
+			if (recent != null && recent.acquire()) {
+				return recent;
+			}
+		} while (recent != null);
+		return null;
+	}
+
+	/**
+	 * 归还数据库连接
+	 *
+	 * @param entry 借用的连接
+	 */
+	public void requite(PoolEntry entry) {
+		reclaim(entry);
+		if (!entry.pooled) {
+			entry.close();
+			return;
+		}
+		if (closed || expired(entry, System.currentTimeMillis()) || size.get() > capacity) {
+			remove(entry);
+			return;
+		}
+		try {
+			entry.reset();
+		} catch (SQLException e) {
+			remove(entry);
+			return;
+		}
+
+		entry.accessed = System.currentTimeMillis();
+		if (release(entry) && !isVirtual()) {
+			final ArrayList<PoolEntry> local = locals.get();
+			if (local.size() < LOCAL_SIZE) {
+				local.add(entry);
+			}
+		}
+	}
+
+	/**
+	 * 将连接置为空闲，有线程等待时直接交接；不修改归还时间，验证不延长空闲时长
+	 *
+	 * @return true 连接仍空闲 / false 已被其它线程借走
+	 */
+	private boolean release(PoolEntry entry) {
+		entry.state.set(PoolEntry.IDLE);
+
+		// 有线程等待时直接交接，直至连接被借走
+		for (int index = 0; waiters.get() > 0; index++) {
+			if (entry.state.get() != PoolEntry.IDLE || handoff.offer(entry)) {
+				return false;
+			} else if ((index & 0xff) == 0xff) {
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+			} else {
+				Thread.yield();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 检查所有空闲连接，无效连接将被移除
+	 *
+	 * @return 有效的空闲连接数量
+	 */
+	public int check() {
+		int count = 0;
+		for (PoolEntry entry : entries) {
+			if (entry.acquire() && alive(entry)) {
+				release(entry);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 后台验证空闲超过保活间隔的连接
+	 */
+	private void keepalive() {
+		try {
+			final long now = System.currentTimeMillis();
+			for (PoolEntry entry : entries) {
+				if (now - Math.max(entry.accessed, entry.validated) >= keepaliveTime && entry.acquire()) {
+					if (alive(entry)) {
+						release(entry);
+					}
+				}
+			}
+		} catch (Exception e) {
+			// 忽略错误，避免后台维护终止
+		}
+	}
+
+	/**
+	 * 后台关闭超过最长存活时间的空闲连接，以及超过最小空闲连接数且空闲超时的连接
+	 */
+	private void evict() {
+		try {
+			final long now = System.currentTimeMillis();
+			int surplus = idle() - minimumIdle;
+			for (PoolEntry entry : entries) {
+				if (entry.state.get() != PoolEntry.IDLE) {
+					continue;
+				}
+				if (expired(entry, now)) {
+					if (entry.acquire()) {
+						// 移除时补足最小空闲连接
+						remove(entry);
+						surplus--;
+					}
+				} else if (idleTimeout > 0 && surplus > 0 && now - entry.accessed >= idleTimeout) {
+					if (entry.acquire()) {
+						remove(entry);
+						surplus--;
+					}
+				}
+			}
+		} catch (Exception e) {
+			// 忽略错误，避免后台维护终止
+		}
+	}
+
+	/**
+	 * 后台报告借出超过泄漏检测阈值的连接，每次借出仅报告一次
+	 */
+	private void detect() {
+		try {
+			final long now = System.currentTimeMillis();
+			for (PoolEntry entry : entries) {
+				if (entry.borrowed && !entry.leaked && entry.lent > 0 && now - entry.lent >= leakDetectionThreshold) {
+					entry.leaked = true;
+					leaks.increment();
+					final Throwable trace = entry.trace;
+					if (trace == null) {
+						// 此后一段时间内每次借用均记录借用位置，以便下次报告时定位
+						tracing = now + TRACING;
+						System.err.println("数据库连接疑似泄漏[" + name + "]，借出 " + (now - entry.lent) + "ms，未记录借用位置");
+					} else {
+						System.err.println("数据库连接疑似泄漏[" + name + "]，借出 " + (now - entry.lent) + "ms");
+						trace.printStackTrace();
+					}
+				}
+			}
+		} catch (Exception e) {
+			// 忽略错误，避免后台维护终止
+		}
+	}
+
+	/**
+	 * 关闭连接池，关闭所有空闲连接，使用中的连接归还时关闭
+	 */
+	public void close() {
+		closed = true;
+		unregister();
+		housekeeper.shutdownNow();
+		creator.shutdownNow();
+		for (PoolEntry entry : entries) {
+			if (entry.acquire()) {
+				remove(entry);
+			}
+		}
+	}
+
+	/**
+	 * 以 JMX 发布监控指标，同名的连接池将被替换
+	 *
+	 * @param name 名称，通常为数据源名称
+	 */
+	void register(String name) {
+		this.name = name;
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName object = new ObjectName("com.joyzl.database:type=ConnectionPool,name=" + ObjectName.quote(name));
+			synchronized (REGISTERED) {
+				if (REGISTERED.put(object, this) != null || server.isRegistered(object)) {
+					server.unregisterMBean(object);
+				}
+				server.registerMBean(this, object);
+			}
+			objectName = object;
+		} catch (JMException | RuntimeException e) {
+			// 监控不可用时不影响连接池
+		}
+	}
+
+	/**
+	 * 注销 JMX，名称已由其它连接池替换时不注销
+	 */
+	private void unregister() {
+		final ObjectName object = objectName;
+		if (object != null) {
+			objectName = null;
+			synchronized (REGISTERED) {
+				if (REGISTERED.remove(object, this)) {
+					try {
+						ManagementFactory.getPlatformMBeanServer().unregisterMBean(object);
+					} catch (JMException | RuntimeException e) {
+						// 忽略错误
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 获取连接池中的连接数量
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	@Override
+	public int getTotal() {
+		return size.get();
+	}
+
+	@Override
+	public int getIdle() {
+		return idle();
+	}
+
+	@Override
+	public int getPending() {
+		return pending.get();
+	}
+
+	@Override
+	public long getBorrowTime50() {
+		return borrowTime.percentile(0.5);
+	}
+
+	@Override
+	public long getBorrowTime99() {
+		return borrowTime.percentile(0.99);
+	}
+
+	@Override
+	public long getBorrowTimeMax() {
+		return borrowTime.maximum();
+	}
+
+	@Override
+	public long[] getBorrowTimeHistogram() {
+		return borrowTime.counts();
+	}
+
+	@Override
+	public long getCreationCount() {
+		return creationTime.count();
+	}
+
+	@Override
+	public long getCreationFailureCount() {
+		return creationFailures.sum();
+	}
+
+	@Override
+	public long getCreationTimeMean() {
+		return creationTime.mean();
+	}
+
+	@Override
+	public long getCreationTimeMax() {
+		return creationTime.maximum();
+	}
+
+	@Override
+	public long getValidationFailureCount() {
+		return validationFailures.sum();
+	}
+
+	@Override
+	public long getLeakCount() {
+		return leaks.sum();
+	}
+
+	@Override
+	public long getSessionSkipCount() {
+		return skips.sum();
+	}
+
+	/**
+	 * 记录跳过的会话状态设置
+	 */
+	void skipped() {
+		skips.increment();
+	}
+
+	@Override
+	public long getStatementCacheHitCount() {
+		return statementHits.sum();
+	}
+
+	@Override
+	public long getStatementCacheMissCount() {
+		return statementMisses.sum();
+	}
+
+	@Override
+	public long getStatementCacheEvictionCount() {
+		return statementEvictions.sum();
+	}
+
+	/**
+	 * 记录预编译语句缓存命中或未命中
+	 */
+	void cached(boolean hit) {
+		if (hit) {
+			statementHits.increment();
+		} else {
+			statementMisses.increment();
+		}
+	}
+
+	/**
+	 * 记录预编译语句缓存淘汰
+	 */
+	void evicted(int count) {
+		if (count > 0) {
+			statementEvictions.add(count);
+		}
+	}
+
+	/**
+	 * 获取最大连接数
+	 */
+	@Override
+	public int getMaximum() {
+		return maximum;
+	}
+
+	@Override
+	public int getCapacity() {
+		return capacity;
+	}
+
+	@Override
+	public int getRecommendedCapacity() {
+		return sizer == null ? maximum : sizer.recommended();
+	}
+
+	/**
+	 * 调整容量，缩小时关闭多余的空闲连接，使用中的连接归还时关闭
+	 *
+	 * @param value 1~maximum
+	 */
+	void resize(int value) {
+		capacity = Math.max(1, Math.min(maximum, value));
+		for (PoolEntry entry : entries) {
+			if (size.get() <= capacity) {
+				break;
+			}
+			if (entry.acquire()) {
+				remove(entry);
+			}
+		}
+	}
+
+	/**
+	 * 获取已归还连接的占用总时长(纳秒)
+	 */
+	long getHeldTime() {
+		return held.sum();
+	}
+
+	/**
+	 * 获取名称
+	 */
+	String getName() {
+		return name;
+	}
+
+	/**
+	 * 获取借出未归还的连接数量
+	 */
+	@Override
+	public int getActive() {
+		return active.intValue();
+	}
+
+	/**
+	 * 获取借用次数
+	 */
+	@Override
+	public long getBorrowCount() {
+		return borrows.sum();
+	}
+
+	/**
+	 * 获取借用等待次数
+	 */
+	@Override
+	public long getWaitCount() {
+		return waits.sum();
+	}
+
+	/**
+	 * 获取借用超时次数
+	 */
+	@Override
+	public long getTimeoutCount() {
+		return timeouts.sum();
+	}
+
+	/**
+	 * 获取复制延迟(毫秒)，仅作为从库且数据源启用心跳监测时有效
+	 *
+	 * @return 0~n / Long.MAX_VALUE 无法监测
+	 */
+	public long getLag() {
+		return lag;
+	}
+
+	/**
+	 * 移除并关闭连接
+	 */
+	void remove(PoolEntry entry) {
+		reclaim(entry);
+		entry.state.set(PoolEntry.REMOVED);
+		if (entry.pooled && entries.remove(entry)) {
+			size.decrementAndGet();
+			// 释放的容量用于补足空闲连接或为等待线程新建连接
+			replenish();
+		}
+		entry.close();
+	}
+
+	/**
+	 * 标记连接已借出，记录借用耗时
+	 */
+	private PoolEntry lend(PoolEntry entry, long start) {
+		entry.since = System.nanoTime();
+		borrowTime.record(entry.since - start);
+		// 始终记录借出时间，运行时启用泄漏检测时已借出的连接按实际借出时长判断
+		entry.lent = System.currentTimeMillis();
+		if (leakDetectionThreshold > 0) {
+			if (entry.lent < tracing || leakTraceRate > 0 && ThreadLocalRandom.current().nextInt(leakTraceRate) == 0) {
+				entry.trace = new Throwable("数据库连接借用位置，线程 " + Thread.currentThread().getName());
+			} else {
+				entry.trace = null;
+			}
+		}
+		entry.borrowed = true;
+		borrows.increment();
+		active.increment();
+		return entry;
+	}
+
+	/**
+	 * 收回借出的连接，归还占用的并发许可
+	 */
+	private void reclaim(PoolEntry entry) {
+		if (entry.borrowed) {
+			entry.borrowed = false;
+			active.decrement();
+			held.add(System.nanoTime() - entry.since);
+			if (entry.leaked) {
+				entry.leaked = false;
+				System.err.println("疑似泄漏的数据库连接已归还[" + name + "]，借出 " + (System.currentTimeMillis() - entry.lent) + "ms");
+			}
+			entry.trace = null;
+		}
+		if (entry.limited) {
+			entry.limited = false;
+			limiter.release();
+		}
+	}
+
+	/**
+	 * 当前线程是否虚拟线程
+	 */
+	static boolean isVirtual() {
+		if (IS_VIRTUAL == null) {
+			return false;
+		}
+		try {
+			return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	/**
+	 * 补足最小空闲连接，有线程等待时按等待线程数补足
+	 */
+	private void replenish() {
+		if (closed || broken.get()) {
+			return;
+		}
+		int need = Math.max(minimumIdle - idle(), waiters.get()) - pending.get();
+		while (need-- > 0 && reserve()) {
+			try {
+				create();
+			} catch (SQLException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 提交新建连接(已预留容量)至创建线程
+	 */
+	private void create() throws SQLException {
+		pending.incrementAndGet();
+		try {
+			creator.execute(this::fill);
+		} catch (RejectedExecutionException e) {
+			pending.decrementAndGet();
+			size.decrementAndGet();
+			throw new SQLException("连接池已关闭", e);
+		}
+	}
+
+	/**
+	 * 新建连接(已预留容量)，置为空闲或交给等待线程
+	 */
+	private void fill() {
+		final PoolEntry entry;
+		try {
+			pace();
+			entry = entry(connect(), true);
+		} catch (SQLException | RuntimeException e) {
+			pending.decrementAndGet();
+			size.decrementAndGet();
+			abandons.incrementAndGet();
+			// 交给一个等待线程使其立即失败，而不是等待至超时
+			for (int index = 0; waiters.get() > 0 && !handoff.offer(FAILED); index++) {
+				if ((index & 0xff) == 0xff) {
+					LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+				} else {
+					Thread.yield();
+				}
+			}
+			return;
+		}
+		entries.add(entry);
+		pending.decrementAndGet();
+		if (closed) {
+			remove(entry);
+		} else {
+			release(entry);
+		}
+	}
+
+	/**
+	 * 按创建速率限制等待，各创建线程依次占用时间槽
+	 */
+	private void pace() throws SQLException {
+		if (creationInterval > 0) {
+			final long now = System.nanoTime();
+			final long slot = creationSlot.accumulateAndGet(now, (last, current) -> Math.max(last, current) + creationInterval) - creationInterval;
+			long delay;
+			while ((delay = slot - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(delay);
+				if (closed || Thread.interrupted()) {
+					throw new SQLException("连接池已关闭");
+				}
+			}
+		}
+	}
+
+	/**
+	 * 获取空闲连接数量
+	 */
+	public int idle() {
+		int count = 0;
+		for (PoolEntry entry : entries) {
+			if (entry.state.get() == PoolEntry.IDLE) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 创建数据库连接，记录连续失败次数，达到熔断次数时熔断并开始后台探测
+	 */
+	private Connection connect() throws SQLException {
+		final long start = System.nanoTime();
+		try {
+			final Connection connection = factory.create();
+			creationTime.record(System.nanoTime() - start);
+			failures.set(0);
+			return connection;
+		} catch (SQLException | RuntimeException e) {
+			creationFailures.increment();
+			failure = e;
+			if (failures.incrementAndGet() >= FAILURES && broken.compareAndSet(false, true)) {
+				probe(BACKOFF_MIN);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * 延迟探测数据库，失败时加倍间隔继续探测，成功后解除熔断
+	 */
+	private void probe(long delay) {
+		if (closed) {
+			return;
+		}
+		try {
+			housekeeper.schedule(() -> {
+				Connection connection = null;
+				try {
+					connection = factory.create();
+					if (connection.isValid(validationTimeout)) {
+						recover(connection);
+						return;
+					}
+				} catch (SQLException | RuntimeException e) {
+					failure = e;
+				}
+				if (connection != null) {
+					try {
+						connection.close();
+					} catch (SQLException e) {
+						// 忽略错误
+					}
+				}
+				probe(Math.min(delay * 2, BACKOFF_MAX));
+			}, delay, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// 连接池已关闭
+		}
+	}
+
+	/**
+	 * 解除熔断，探测连接纳入连接池并补足最小空闲连接
+	 */
+	private void recover(Connection connection) {
+		failures.set(0);
+		broken.set(false);
+		if (!closed && reserve()) {
+			final PoolEntry entry;
+			try {
+				entry = entry(connection, true);
+			} catch (SQLException e) {
+				// 由补足任务重新创建
+				size.decrementAndGet();
+				failure = e;
+				return;
+			}
+			entries.add(entry);
+			release(entry);
+		} else {
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				// 忽略错误
+			}
+		}
+		replenish();
+	}
+
+	/**
+	 * 获取数据库是否可用，返回缓存的熔断状态，不访问数据库
+	 *
+	 * @return true 可用 / false 熔断中
+	 */
+	@Override
+	public boolean isHealthy() {
+		return !broken.get();
+	}
+
+	/**
+	 * 等待数据库恢复可用
+	 *
+	 * @param timeout 等待时间
+	 * @param unit 时间单位
+	 * @return true 可用 / false 超时
+	 */
+	public boolean awaitHealthy(long timeout, TimeUnit unit) {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (broken.get()) {
+			if (closed || System.nanoTime() - deadline >= 0) {
+				return false;
+			}
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+			if (Thread.interrupted()) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 获取最近一次创建连接失败的原因
+	 *
+	 * @return Throwable / null 未失败
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	/**
+	 * 创建连接条目并读取会话状态，失败时关闭连接；
+	 * 纳入连接池管理的连接按最长存活时间随机提前至多 2.5% 设置过期时间
+	 */
+	private PoolEntry entry(Connection connection, boolean pooled) throws SQLException {
+		final PoolEntry entry;
+		try {
+			entry = new PoolEntry(this, connection, pooled);
+		} catch (SQLException | RuntimeException e) {
+			try {
+				connection.close();
+			} catch (SQLException ex) {
+				// 忽略错误
+			}
+			throw e;
+		}
+		if (pooled) {
+			expire(entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * 按最长存活时间设置连接的过期时间
+	 */
+	private void expire(PoolEntry entry) {
+		final long lifetime = maxLifetime;
+		if (lifetime > 0) {
+			final long variance = lifetime / 40;
+			entry.expires = entry.created + lifetime - (variance > 0 ? ThreadLocalRandom.current().nextLong(variance) : 0);
+		} else {
+			entry.expires = 0;
+		}
+	}
+
+	/**
+	 * 连接是否超过最长存活时间
+	 */
+	private static boolean expired(PoolEntry entry, long now) {
+		return entry.expires > 0 && now >= entry.expires;
+	}
+
+	/**
+	 * 验证借用的连接，超过最长存活时间的连接被移除，归还或验证后在免验证窗口内的连接视为有效
+	 */
+	private boolean validate(PoolEntry entry) {
+		final long now = System.currentTimeMillis();
+		if (expired(entry, now)) {
+			remove(entry);
+			return false;
+		}
+		if (now - Math.max(entry.accessed, entry.validated) < validationWindow) {
+			return true;
+		}
+		return alive(entry);
+	}
+
+	/**
+	 * 验证连接是否有效，无效则移除
+	 */
+	private boolean alive(PoolEntry entry) {
+		try {
+			// isValid 提交一个查询到数据库验证连接是否有效
+			if (entry.connection.isValid(validationTimeout)) {
+				entry.validated = System.currentTimeMillis();
+				return true;
+			}
+		} catch (SQLFeatureNotSupportedException e) {
+			if (query(entry)) {
+				entry.validated = System.currentTimeMillis();
+				return true;
+			}
+		} catch (SQLException e) {
+			// 视为无效连接
+		}
+		validationFailures.increment();
+		remove(entry);
+		return false;
+	}
+
+	/**
+	 * 执行验证查询
+	 */
+	private boolean query(PoolEntry entry) {
+		final String sql = validationQuery;
+		if (sql == null) {
+			return false;
+		}
+		try (java.sql.Statement statement = entry.connection.createStatement()) {
+			statement.setQueryTimeout(validationTimeout);
+			statement.execute(sql);
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * 预留连接池容量
+	 */
+	private boolean reserve() {
+		int value;
+		do {
+			value = size.get();
+			if (value >= capacity) {
+				return false;
+			}
+		} while (!size.compareAndSet(value, value + 1));
+		return true;
+	}
+
+	/**
+	 * 并发借用限制，修改最大连接数时增减许可
+	 */
+	private final static class Limiter extends Semaphore {
+
+		private static final long serialVersionUID = 1L;
+
+		Limiter(int permits) {
+			super(permits, true);
+		}
+
+		void adjust(int delta) {
+			if (delta > 0) {
+				release(delta);
+			} else if (delta < 0) {
+				reducePermits(-delta);
+			}
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+/**
+ * 连接池监控指标，数据源创建的连接池注册为
+ * {@code com.joyzl.database:type=ConnectionPool,name="数据源名称"}，从库名称附加 {@code .replica序号}；
+ * 耗时单位均为微秒，计数自连接池创建起累计。
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+public interface ConnectionPoolMXBean {
+
+	/** 获取最大连接数 */
+	int getMaximum();
+
+	/** 获取当前容量，自动调节时介于最小空闲连接数和最大连接数之间 */
+	int getCapacity();
+
+	/** 获取建议容量，未启用容量调节时为最大连接数 */
+	int getRecommendedCapacity();
+
+	/** 获取连接池中的连接数量(含正在创建的) */
+	int getTotal();
+
+	/** 获取借出未归还的连接数量 */
+	int getActive();
+
+	/** 获取空闲连接数量 */
+	int getIdle();
+
+	/** 获取正在创建的连接数量 */
+	int getPending();
+
+	/** 获取数据库是否可用 */
+	boolean isHealthy();
+
+	/** 获取借用次数 */
+	long getBorrowCount();
+
+	/** 获取借用等待次数 */
+	long getWaitCount();
+
+	/** 获取借用超时次数 */
+	long getTimeoutCount();
+
+	/** 获取借用耗时中位数 */
+	long getBorrowTime50();
+
+	/** 获取借用耗时 99 百分位 */
+	long getBorrowTime99();
+
+	/** 获取借用耗时最大值 */
+	long getBorrowTimeMax();
+
+	/** 获取借用耗时分布，第 n 项为 [2^(n-1), 2^n) 微秒的次数 */
+	long[] getBorrowTimeHistogram();
+
+	/** 获取创建连接次数 */
+	long getCreationCount();
+
+	/** 获取创建连接失败次数 */
+	long getCreationFailureCount();
+
+	/** 获取创建连接平均耗时 */
+	long getCreationTimeMean();
+
+	/** 获取创建连接最大耗时 */
+	long getCreationTimeMax();
+
+	/** 获取验证失败次数 */
+	long getValidationFailureCount();
+
+	/** 获取疑似泄漏次数 */
+	long getLeakCount();
+
+	/** 获取因会话状态未变化而跳过的设置次数，即节省的数据库往返次数 */
+	long getSessionSkipCount();
+
+	/** 获取预编译语句缓存命中次数 */
+	long getStatementCacheHitCount();
+
+	/** 获取预编译语句缓存未命中次数，未启用语句缓存时为 0 */
+	long getStatementCacheMissCount();
+
+	/** 获取预编译语句缓存淘汰次数 */
+	long getStatementCacheEvictionCount();
+}
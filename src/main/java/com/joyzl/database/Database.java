@@ -5,13 +5,14 @@
  */
 package com.joyzl.database;
 
-import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Enumeration;
-import java.util.Queue;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.CommonDataSource;
 
 /**
  * 数据库操作，对JDBC接口进行封装<br>
@@ -33,6 +34,16 @@ import java.util.concurrent.ArrayBlockingQueue;
  *
  * <pre>
  * <code>
+ * // 多个数据库，每个命名数据源具有独立的连接池，静态方法使用默认数据源
+ * DatabaseSource energies = Database.initialize("energies", Database.MYSQL, url, user, password, options);
+ * try (Statement statement = energies.instance("SELECT * FROM `energies` WHERE `id`=?id")){
+ *     ...
+ * }
+ * </code>
+ * </pre>
+ *
+ * <pre>
+ * <code>
  * // 数据库查询
  * try (Statement statement = Database.instance("SELECT * FROM `users` WHERE `mobile=?mobile")){
  *     statement.setValue("mobile", "13883833982");
@@ -120,107 +131,154 @@ public final class Database {
 
 	public final static int MYSQL = 1;
 	public final static int ORACLE = 2;
+	public final static int H2 = 3;
 
-	private static int TYPE;
-	// 数据库用户名
-	private static String USERNAME = "";
-	// 数据库用户密码
-	private static String PASSWORD = "";
-	// 数据库连接字符串
-	private static String CONNECTION_STRING = "";
-	// 数据库连接队列
-	static Queue<Connection> CONNECTIONS;
+	// 默认数据源名称
+	public final static String DEFAULT = "default";
+	// 已注册的数据源
+	private final static Map<String, DatabaseSource> SOURCES = new ConcurrentHashMap<>();
+	// 默认数据源
+	private static volatile DatabaseSource SOURCE;
 
 	/**
 	 * 初始化数据库驱动
 	 *
-	 * @param type {@link #MYSQL}/{@link #ORACLE}
+	 * @param type {@link #MYSQL}/{@link #ORACLE}/{@link #H2}
 	 * @param url 数据库URL
 	 * @param user 数据库访问用户
 	 * @param password 数据库访问密码
 	 * @param maximum 最大连接数
 	 */
 	public static void initialize(int type, String url, String user, String password, int maximum) {
-		TYPE = type;
-		USERNAME = user;
-		PASSWORD = password;
-		CONNECTION_STRING = url;
-		CONNECTIONS = new ArrayBlockingQueue<>(maximum);
+		initialize(type, url, user, password, new PoolOptions(maximum));
+	}
 
-		try {
-			switch (type) {
-				case MYSQL:
-					// Class.forName("com.mysql.jdbc.Driver");
-					// MySQL 采用了新的包名称
-					Class.forName("com.mysql.cj.jdbc.Driver");
-					break;
-				case ORACLE:
-					// jdbc:oracle:thin:@myhost:1521/myorcldbservicename
-					Class.forName("oracle.jdbc.driver.OracleDriver");
-					break;
-				default:
-					throw new IllegalArgumentException("不支持的数据库类型 " + type);
-			}
-		} catch (ClassNotFoundException ex) {
-			throw new RuntimeException("mysql Deiver not found", ex);
+	/**
+	 * 初始化数据库驱动
+	 *
+	 * @param type {@link #MYSQL}/{@link #ORACLE}/{@link #H2}
+	 * @param url 数据库URL
+	 * @param user 数据库访问用户
+	 * @param password 数据库访问密码
+	 * @param options 连接池选项
+	 */
+	public static void initialize(int type, String url, String user, String password, PoolOptions options) {
+		SOURCE = initialize(DEFAULT, type, url, user, password, options);
+	}
+
+	/**
+	 * 初始化并注册命名数据源，每个数据源具有独立的连接池；同名数据源将被替换并关闭
+	 *
+	 * @param name 数据源名称
+	 * @param type {@link #MYSQL}/{@link #ORACLE}/{@link #H2}
+	 * @param url 数据库URL
+	 * @param user 数据库访问用户
+	 * @param password 数据库访问密码
+	 * @param options 连接池选项
+	 * @return DatabaseSource
+	 */
+	public static DatabaseSource initialize(String name, int type, String url, String user, String password, PoolOptions options) {
+		final DatabaseSource source = new DatabaseSource(name, type, url, user, password, options);
+		final DatabaseSource old = SOURCES.put(name, source);
+		if (old != null) {
+			old.close();
 		}
+		return source;
+	}
 
-		// JNDI
-		// Context ctx = new InitialContext();
-		// DataSource ds = (DataSource)
-		// ctx.lookup("java:comp/env/jdbc/MySQLDB");
-		// ds.getConnection();
+	/**
+	 * 初始化默认数据源，由外部数据源创建连接
+	 *
+	 * @param type {@link #MYSQL}/{@link #ORACLE}/{@link #H2}
+	 * @param dataSource 数据库厂商提供的 DataSource 或 ConnectionPoolDataSource
+	 * @param options 连接池选项
+	 */
+	public static void initialize(int type, CommonDataSource dataSource, PoolOptions options) {
+		SOURCE = initialize(DEFAULT, type, dataSource, options);
+	}
+
+	/**
+	 * 初始化并注册命名数据源，由外部数据源创建连接；同名数据源将被替换并关闭
+	 *
+	 * @param name 数据源名称
+	 * @param type {@link #MYSQL}/{@link #ORACLE}/{@link #H2}
+	 * @param dataSource 数据库厂商提供的 DataSource 或 ConnectionPoolDataSource
+	 * @param options 连接池选项
+	 * @return DatabaseSource
+	 */
+	public static DatabaseSource initialize(String name, int type, CommonDataSource dataSource, PoolOptions options) {
+		final DatabaseSource source = new DatabaseSource(name, type, dataSource, options);
+		final DatabaseSource old = SOURCES.put(name, source);
+		if (old != null) {
+			old.close();
+		}
+		return source;
 	}
 
 	/**
-	 * 检查数据库链路是否正常，此方法柱塞当前线程直至数据库连接恢复
+	 * 获取默认数据源
+	 *
+	 * @return DatabaseSource / null 未初始化
 	 */
+	public static DatabaseSource source() {
+		return SOURCE;
+	}
+
+	/**
+	 * 获取已注册的命名数据源
+	 *
+	 * @param name 数据源名称
+	 * @return DatabaseSource / null 未注册
+	 */
+	public static DatabaseSource source(String name) {
+		return SOURCES.get(name);
+	}
+
+	/**
+	 * 检查默认数据源链路是否正常，此方法柱塞当前线程直至数据库连接恢复
+	 *
+	 * @deprecated 使用 {@link #isHealthy()} 查询默认数据源状态
+	 */
+	@Deprecated
 	public final static void checkWait() {
-		if (CONNECTIONS == null || CONNECTIONS.isEmpty()) {
-			while (true) {
-				try {
-					Connection connection = getConnection();
-					if (connection.isValid(10)) {
-						if (CONNECTIONS.offer(connection)) {
-							// OK
-						} else {
-							connection.close();
-						}
-						return;
-					} else {
-						connection.close();
-					}
-				} catch (Exception e) {
-					System.err.println("数据库无法连接，等待重试:" + e.getMessage());
-					try {
-						Thread.sleep(10 * 1000);
-					} catch (InterruptedException e1) {
-						// 忽略此异常
-					}
-				}
-			}
-		} else {
-			int size = CONNECTIONS.size();
-			while (size-- > 0) {
-				try {
-					Connection connection = CONNECTIONS.poll();
-					if (connection.isValid(1)) {
-						CONNECTIONS.offer(connection);
-					} else {
-						connection.close();
-					}
-				} catch (SQLException e) {
-					// 忽略错误
-				}
-			}
-			if (CONNECTIONS.isEmpty()) {
-				checkWait();
+		while (SOURCE == null) {
+			System.err.println("数据库未初始化，等待重试");
+			try {
+				Thread.sleep(10 * 1000);
+			} catch (InterruptedException e1) {
+				// 忽略此异常
 			}
 		}
+		SOURCE.checkWait();
 	}
 
 	/**
-	 * 销毁数据库及所有缓存连接
+	 * 获取默认数据源是否可用，返回缓存的状态，不访问数据库，可频繁调用
+	 *
+	 * @return true 可用 / false 未初始化或熔断中
+	 */
+	public static boolean isHealthy() {
+		final DatabaseSource source = SOURCE;
+		return source != null && source.isHealthy();
+	}
+
+	/**
+	 * 运行时修改默认数据源的连接池选项，无需销毁并重新初始化
+	 *
+	 * @param options 连接池选项
+	 * @see DatabaseSource#reconfigure(PoolOptions)
+	 */
+	public static void reconfigure(PoolOptions options) {
+		final DatabaseSource source = SOURCE;
+		if (source == null) {
+			throw new IllegalStateException("数据库未初始化");
+		}
+		source.reconfigure(options);
+	}
+
+	/**
+	 * 销毁数据库及所有缓存连接，关闭所有数据源并注销数据库驱动；
+	 * 仅修改连接池选项时使用 {@link #reconfigure(PoolOptions)}
 	 */
 	public final static void destory() {
 		final Enumeration<Driver> drivers = DriverManager.getDrivers();
@@ -233,24 +291,15 @@ public final class Database {
 			}
 		}
 
-		if (CONNECTIONS == null || CONNECTIONS.isEmpty()) {
-			// EMPTY
-		} else {
-			Connection connection;
-			while ((connection = CONNECTIONS.poll()) != null) {
-				try {
-					connection.close();
-				} catch (SQLException e) {
-					// 忽略错误
-				}
+		for (DatabaseSource source : SOURCES.values()) {
+			source.close();
+			if (source.getType() == MYSQL) {
+				// http://docs.oracle.com/cd/E17952_01/connector-j-relnotes-en/news-5-1-23.html
+				// import com.mysql.cj.jdbc.AbandonedConnectionCleanupThread;
+				// AbandonedConnectionCleanupThread.checkedShutdown();
 			}
 		}
-
-		if (TYPE == MYSQL) {
-			// http://docs.oracle.com/cd/E17952_01/connector-j-relnotes-en/news-5-1-23.html
-			// import com.mysql.cj.jdbc.AbandonedConnectionCleanupThread;
-			// AbandonedConnectionCleanupThread.checkedShutdown();
-		}
+		SOURCES.clear();
 	}
 
 	/**
@@ -259,38 +308,11 @@ public final class Database {
 	 * @return 是否初始化
 	 */
 	public static boolean isInitialized() {
-		return CONNECTIONS != null;
+		return SOURCE != null;
 	}
 
 	////////////////////////////////////////////////////////////////////////////////
 
-	/**
-	 * 获取数据库连接，优先从连接队列获取，如果连接队列为空则新建连接
-	 *
-	 * @return Connection
-	 * @throws SQLException
-	 */
-	static Connection getConnection() throws SQLException {
-		if (CONNECTIONS.isEmpty()) {
-			return DriverManager.getConnection(CONNECTION_STRING, USERNAME, PASSWORD);
-		} else {
-			Connection connection = CONNECTIONS.poll();
-			if (connection == null) {
-				return getConnection();
-			} else {
-				if (connection.isValid(1)) {
-					// isValid(8) 提交一个查询到数据库验证连接是否有效
-					// 最长等待 8秒
-					// 8秒过长,等待一秒即可
-					return connection;
-				} else {
-					connection.close();
-					return getConnection();
-				}
-			}
-		}
-	}
-
 	/**
 	 * 实例化数据访问对象<br>
 	 * {@code SELECT * FROM `users` WHERE `id`=?id}<br>
@@ -300,7 +322,7 @@ public final class Database {
 	 * @return Statement 实例
 	 */
 	public static Statement instance(String sql) {
-		return new Statement(sql, false);
+		return new Statement(SOURCE, sql, false);
 	}
 
 	/**
@@ -314,7 +336,7 @@ public final class Database {
 	 * @return Statement 实例
 	 */
 	public static Statement instance(String sql, boolean transaction) {
-		return new Statement(sql, transaction);
+		return new Statement(SOURCE, sql, transaction);
 	}
 
 	/**
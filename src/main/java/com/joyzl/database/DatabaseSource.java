@@ -0,0 +1,615 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.CommonDataSource;
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.DataSource;
+import javax.sql.PooledConnection;
+
+/**
+ * 数据源，每个数据源具有独立的数据库连接参数和连接池<br>
+ * 同一程序可同时访问多个数据库，{@link Database} 的静态方法使用默认数据源
+ *
+ * <pre>
+ * <code>
+ * // 创建并注册命名数据源
+ * DatabaseSource users = Database.initialize("users", Database.MYSQL, url, user, password, options);
+ *
+ * try (Statement statement = users.instance("SELECT * FROM `users` WHERE `mobile`=?mobile")){
+ *     statement.setValue("mobile", "13883833982");
+ *     ...
+ * }
+ *
+ * // 获取已注册的数据源
+ * DatabaseSource users = Database.source("users");
+ * </code>
+ * </pre>
+ * <p>
+ * 添加从库后，未开启事务的只读查询(SELECT)按负载均衡策略在从库执行，写入和事务中的语句始终在主库执行；
+ * 从库无法获取连接时读取主库。
+ * </p>
+ * <p>
+ * 启用心跳监测后，复制延迟超过阈值的从库暂停分担查询，延迟恢复后重新加入；
+ * 设置读己之写窗口后，当前线程写入提交后窗口期内的查询在主库执行，避免读取从库尚未同步的旧数据。
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * users.addReplica(replicaUrl, user, password, options);
+ * users.setBalance(DatabaseSource.LEAST_OUTSTANDING);
+ * users.setHeartbeat("heartbeat", 1000, 3000);
+ * users.setConsistencyWindow(3000);
+ * </code>
+ * </pre>
+ * <p>
+ * 连接可由数据库厂商的 DataSource 或 ConnectionPoolDataSource 创建以利用驱动的语句缓存等特性；
+ * {@link #getDataSource()} 以标准 DataSource 提供连接池，供同一程序中的其它库共用。
+ * </p>
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+public final class DatabaseSource {
+
+	/** 从库轮询 */
+	public final static int ROUND_ROBIN = 1;
+	/** 从库最少借出连接 */
+	public final static int LEAST_OUTSTANDING = 2;
+
+	private final static ConnectionPool[] EMPTY = new ConnectionPool[0];
+
+	private final String name;
+	private final int type;
+	// 数据库方言
+	final Dialect dialect;
+	// 数据库用户名
+	private final String username;
+	// 数据库用户密码
+	private final String password;
+	// 数据库连接字符串
+	private final String url;
+	// 数据库连接池
+	final ConnectionPool pool;
+	// 连接池的标准数据源视图
+	private final DataSource view;
+	// 从库连接池，写时复制
+	private volatile ConnectionPool[] replicas = EMPTY;
+	private final AtomicInteger cursor = new AtomicInteger();
+	private volatile int balance = ROUND_ROBIN;
+	// 从库延迟监测，未启用时为 null
+	private volatile Heartbeat heartbeat;
+	private ScheduledExecutorService monitor;
+	// 读己之写窗口(毫秒)，0 不启用
+	private volatile long consistencyWindow;
+	// 当前线程最后写入提交时间
+	private final ThreadLocal<long[]> written = ThreadLocal.withInitial(() -> new long[1]);
+
+	/**
+	 * 创建数据源，加载数据库驱动并创建连接池
+	 *
+	 * @param name 数据源名称
+	 * @param type {@link Database#MYSQL}/{@link Database#ORACLE}/{@link Database#H2}
+	 * @param url 数据库URL
+	 * @param user 数据库访问用户
+	 * @param password 数据库访问密码
+	 * @param options 连接池选项
+	 */
+	public DatabaseSource(String name, int type, String url, String user, String password, PoolOptions options) {
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("数据源名称不能为空");
+		}
+		this.name = name;
+		this.type = type;
+		this.url = url;
+		this.username = user;
+		this.password = password;
+
+		dialect = Dialect.of(type);
+		load(dialect);
+		pool = create(factory(url, user, password, options), options);
+		pool.register(name);
+		view = new PoolDataSource(pool);
+	}
+
+	/**
+	 * 创建数据源，由外部数据源创建连接，不加载数据库驱动
+	 *
+	 * @param name 数据源名称
+	 * @param type {@link Database#MYSQL}/{@link Database#ORACLE}/{@link Database#H2}
+	 * @param dataSource 数据库厂商提供的 DataSource 或 ConnectionPoolDataSource
+	 * @param options 连接池选项
+	 */
+	public DatabaseSource(String name, int type, CommonDataSource dataSource, PoolOptions options) {
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("数据源名称不能为空");
+		}
+		this.name = name;
+		this.type = type;
+		this.url = null;
+		this.username = null;
+		this.password = null;
+
+		dialect = Dialect.of(type);
+		pool = create(factory(dataSource), options);
+		pool.register(name);
+		view = new PoolDataSource(pool);
+	}
+
+	/**
+	 * 由驱动创建连接，选项启用时附加URL中未指定的方言推荐属性
+	 */
+	private ConnectionPool.Factory factory(String url, String user, String password, PoolOptions options) {
+		final Properties properties;
+		if (options != null && options.isDialectProperties()) {
+			properties = dialect.getProperties();
+			for (String key : properties.stringPropertyNames()) {
+				if (url != null && url.contains(key + "=")) {
+					properties.remove(key);
+				}
+			}
+		} else {
+			properties = new Properties();
+		}
+		if (user != null) {
+			properties.setProperty("user", user);
+		}
+		if (password != null) {
+			properties.setProperty("password", password);
+		}
+		return () -> DriverManager.getConnection(url, properties);
+	}
+
+	/**
+	 * 由外部数据源创建连接；ConnectionPoolDataSource 的逻辑连接关闭时关闭其物理连接，连接池由当前连接池管理
+	 */
+	static ConnectionPool.Factory factory(CommonDataSource dataSource) {
+		if (dataSource instanceof ConnectionPoolDataSource) {
+			final ConnectionPoolDataSource source = (ConnectionPoolDataSource) dataSource;
+			return () -> {
+				final PooledConnection pooled = source.getPooledConnection();
+				pooled.addConnectionEventListener(new ConnectionEventListener() {
+					@Override
+					public void connectionClosed(ConnectionEvent event) {
+						close(pooled);
+					}
+
+					@Override
+					public void connectionErrorOccurred(ConnectionEvent event) {
+						close(pooled);
+					}
+				});
+				final Connection connection;
+				try {
+					connection = pooled.getConnection();
+				} catch (SQLException e) {
+					close(pooled);
+					throw e;
+				}
+				return connection;
+			};
+		}
+		if (dataSource instanceof DataSource) {
+			return ((DataSource) dataSource)::getConnection;
+		}
+		throw new IllegalArgumentException("数据源须为 DataSource 或 ConnectionPoolDataSource");
+	}
+
+	private static void close(PooledConnection pooled) {
+		try {
+			pooled.close();
+		} catch (SQLException e) {
+			// 忽略错误
+		}
+	}
+
+	/**
+	 * 创建连接池，驱动加载后创建，将按最小空闲连接数预建连接
+	 */
+	private ConnectionPool create(ConnectionPool.Factory factory, PoolOptions options) {
+		final ConnectionPool pool = new ConnectionPool(options, factory);
+		pool.validationQuery = dialect.getValidationQuery();
+		if (options.getInitializationTimeout() > 0) {
+			if (!pool.awaitMinimumIdle(options.getInitializationTimeout(), TimeUnit.MILLISECONDS)) {
+				System.err.println("数据库连接池预建连接超时[" + name + "]，空闲连接:" + pool.idle() + "/" + options.getMinimumIdle());
+			}
+		}
+		return pool;
+	}
+
+	/**
+	 * 添加从库，从库与主库数据库类型相同，具有独立的连接池
+	 *
+	 * @param url 从库URL
+	 * @param user 数据库访问用户
+	 * @param password 数据库访问密码
+	 * @param options 连接池选项
+	 * @return 从库连接池
+	 */
+	public ConnectionPool addReplica(String url, String user, String password, PoolOptions options) {
+		return addReplica(create(factory(url, user, password, options), options));
+	}
+
+	/**
+	 * 添加从库，由外部数据源创建连接，具有独立的连接池
+	 *
+	 * @param dataSource 数据库厂商提供的 DataSource 或 ConnectionPoolDataSource
+	 * @param options 连接池选项
+	 * @return 从库连接池
+	 */
+	public ConnectionPool addReplica(CommonDataSource dataSource, PoolOptions options) {
+		return addReplica(create(factory(dataSource), options));
+	}
+
+	private ConnectionPool addReplica(ConnectionPool replica) {
+		synchronized (this) {
+			final ConnectionPool[] array = Arrays.copyOf(replicas, replicas.length + 1);
+			array[array.length - 1] = replica;
+			replicas = array;
+			replica.register(name + ".replica" + (array.length - 1));
+		}
+		return replica;
+	}
+
+	/**
+	 * 获取所有从库连接池
+	 */
+	public List<ConnectionPool> getReplicas() {
+		return Collections.unmodifiableList(Arrays.asList(replicas));
+	}
+
+	/**
+	 * 获取从库负载均衡策略
+	 *
+	 * @return {@link #ROUND_ROBIN}/{@link #LEAST_OUTSTANDING}
+	 */
+	public int getBalance() {
+		return balance;
+	}
+
+	/**
+	 * 设置从库负载均衡策略
+	 *
+	 * @param value {@link #ROUND_ROBIN} 轮询 / {@link #LEAST_OUTSTANDING} 借出连接最少的从库
+	 */
+	public void setBalance(int value) {
+		if (value != ROUND_ROBIN && value != LEAST_OUTSTANDING) {
+			throw new IllegalArgumentException("不支持的负载均衡策略 " + value);
+		}
+		balance = value;
+	}
+
+	/**
+	 * 启用从库延迟监测，后台线程定期向主库心跳表写入时间并从从库读取，
+	 * 延迟超过阈值或无法读取的从库暂停分担查询；心跳表须在主库创建并同步至从库。
+	 * 从库在下次写入之前读取，测得的延迟至少为监测间隔，最大允许延迟须大于监测间隔<br>
+	 * {@code CREATE TABLE heartbeat (id INT PRIMARY KEY, ts BIGINT)}
+	 *
+	 * @param table 心跳表名，字母、数字、下划线组成，可带库名限定
+	 * @param interval 监测间隔(毫秒)
+	 * @param maximumLag 最大允许延迟(毫秒)
+	 */
+	public synchronized void setHeartbeat(String table, long interval, long maximumLag) {
+		if (table == null || table.isEmpty()) {
+			throw new IllegalArgumentException("心跳表名不能为空");
+		}
+		if (!Heartbeat.TABLE.matcher(table).matches()) {
+			throw new IllegalArgumentException("心跳表名无效 " + table);
+		}
+		if (interval < 1) {
+			throw new IllegalArgumentException("监测间隔必须大于零");
+		}
+		if (maximumLag <= interval) {
+			throw new IllegalArgumentException("最大允许延迟必须大于监测间隔");
+		}
+		if (monitor != null) {
+			monitor.shutdownNow();
+		}
+		monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "database-heartbeat");
+			thread.setDaemon(true);
+			return thread;
+		});
+		heartbeat = new Heartbeat(this, table, interval, maximumLag);
+		monitor.scheduleWithFixedDelay(heartbeat, 0, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 获取从库最大允许延迟(毫秒)
+	 *
+	 * @return 0 未启用心跳监测
+	 */
+	public long getMaximumLag() {
+		final Heartbeat h = heartbeat;
+		return h == null ? 0 : h.maximumLag;
+	}
+
+	/**
+	 * 获取读己之写窗口(毫秒)
+	 */
+	public long getConsistencyWindow() {
+		return consistencyWindow;
+	}
+
+	/**
+	 * 设置读己之写窗口(毫秒)，当前线程写入或事务提交后，窗口期内的只读查询在主库执行；
+	 * 范围为当前线程，适用于一个请求由一个线程处理的情形
+	 *
+	 * @param value 0 不启用
+	 */
+	public void setConsistencyWindow(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("读己之写窗口不能小于零");
+		}
+		consistencyWindow = value;
+	}
+
+	/**
+	 * 标记当前线程已写入主库，由 {@link Statement} 提交后调用
+	 */
+	void written() {
+		if (consistencyWindow > 0 && replicas.length > 0) {
+			written.get()[0] = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * 当前线程是否处于读己之写窗口内
+	 */
+	private boolean pinned() {
+		final long window = consistencyWindow;
+		if (window > 0) {
+			final long time = written.get()[0];
+			return time > 0 && System.currentTimeMillis() - time < window;
+		}
+		return false;
+	}
+
+	/**
+	 * 加载数据库驱动
+	 */
+	static void load(Dialect dialect) {
+		try {
+			Class.forName(dialect.getDriver());
+		} catch (ClassNotFoundException ex) {
+			throw new RuntimeException(dialect.getName() + " Deiver not found", ex);
+		}
+
+		// JNDI
+		// Context ctx = new InitialContext();
+		// DataSource ds = (DataSource)
+		// ctx.lookup("java:comp/env/jdbc/MySQLDB");
+		// ds.getConnection();
+	}
+
+	/**
+	 * 检查数据库链路是否正常，此方法柱塞当前线程直至数据库连接恢复
+	 *
+	 * @deprecated 数据库状态由连接池熔断和后台探测维护，使用 {@link #isHealthy()} 查询或
+	 *             {@link #awaitHealthy(long, TimeUnit)} 限时等待
+	 */
+	@Deprecated
+	public void checkWait() {
+		while (!pool.awaitHealthy(10, TimeUnit.SECONDS)) {
+			if (pool.getFailure() != null) {
+				System.err.println("数据库无法连接，等待恢复:" + pool.getFailure().getMessage());
+			}
+		}
+	}
+
+	/**
+	 * 获取主库是否可用，返回连接池缓存的熔断状态，不访问数据库；
+	 * 不可用时获取连接立即失败，后台按指数退避探测直至恢复
+	 *
+	 * @return true 可用 / false 熔断中
+	 */
+	public boolean isHealthy() {
+		return pool.isHealthy();
+	}
+
+	/**
+	 * 等待主库恢复可用
+	 *
+	 * @param timeout 等待时间
+	 * @param unit 时间单位
+	 * @return true 可用 / false 超时
+	 */
+	public boolean awaitHealthy(long timeout, TimeUnit unit) {
+		return pool.awaitHealthy(timeout, unit);
+	}
+
+	/**
+	 * 运行时修改主库连接池选项，无需关闭数据源，不影响正在执行的语句；
+	 * 从库连接池通过 {@link #getReplicas()} 分别修改
+	 *
+	 * @param options 连接池选项
+	 * @see ConnectionPool#reconfigure(PoolOptions)
+	 */
+	public void reconfigure(PoolOptions options) {
+		pool.reconfigure(options);
+	}
+
+	/**
+	 * 关闭数据源及所有缓存连接，不影响已注册的数据库驱动
+	 */
+	public void close() {
+		synchronized (this) {
+			if (monitor != null) {
+				monitor.shutdownNow();
+			}
+		}
+		pool.close();
+		for (ConnectionPool replica : replicas) {
+			replica.close();
+		}
+	}
+
+	/**
+	 * 获取数据库连接，优先从连接池获取，如果连接池无空闲连接则新建连接或等待归还
+	 *
+	 * @return PoolEntry
+	 * @throws SQLException
+	 */
+	PoolEntry getConnection() throws SQLException {
+		return pool.borrow();
+	}
+
+	/**
+	 * 获取只读查询的数据库连接，有可用从库时从从库获取；
+	 * 无可用从库、从库无法获取连接或处于读己之写窗口内时从主库获取
+	 *
+	 * @return PoolEntry
+	 * @throws SQLException
+	 */
+	PoolEntry getReadConnection() throws SQLException {
+		final ConnectionPool replica = pinned() ? null : select();
+		if (replica != null) {
+			try {
+				return replica.borrow();
+			} catch (SQLException e) {
+				// 从库不可用，读取主库
+			}
+		}
+		return pool.borrow();
+	}
+
+	/**
+	 * 按负载均衡策略选择从库，跳过熔断或延迟超过阈值的从库
+	 *
+	 * @return ConnectionPool / null 无可用从库
+	 */
+	private ConnectionPool select() {
+		final ConnectionPool[] array = replicas;
+		if (array.length == 0) {
+			return null;
+		}
+		final Heartbeat h = heartbeat;
+		final long lag = h == null ? Long.MAX_VALUE : h.maximumLag;
+		if (array.length == 1) {
+			return available(array[0], lag) ? array[0] : null;
+		}
+		if (balance == LEAST_OUTSTANDING) {
+			ConnectionPool replica = null;
+			int active = Integer.MAX_VALUE;
+			for (int index = 0; index < array.length; index++) {
+				if (available(array[index], lag) && array[index].getActive() < active) {
+					replica = array[index];
+					active = replica.getActive();
+				}
+			}
+			return replica;
+		}
+		final int start = Math.floorMod(cursor.getAndIncrement(), array.length);
+		for (int index = 0; index < array.length; index++) {
+			final ConnectionPool replica = array[(start + index) % array.length];
+			if (available(replica, lag)) {
+				return replica;
+			}
+		}
+		return null;
+	}
+
+	private static boolean available(ConnectionPool replica, long lag) {
+		return replica.lag <= lag && replica.isHealthy();
+	}
+
+	/**
+	 * 实例化数据访问对象<br>
+	 * {@code SELECT * FROM `users` WHERE `id`=?id}<br>
+	 * {@code statement.setValue("id",1);}
+	 *
+	 * @param sql 命名参数SQL语句
+	 * @return Statement 实例
+	 */
+	public Statement instance(String sql) {
+		return new Statement(this, sql, false);
+	}
+
+	/**
+	 * 实例化数据访问对象<br>
+	 * 如果开启事务(transaction 参数为 true) 则会将自动提交设置为 false, 执行完成后将自动提交或回滚事务
+	 *
+	 * @param sql 命名参数SQL语句
+	 * @param transaction 是否开启事务
+	 * @return Statement 实例
+	 */
+	public Statement instance(String sql, boolean transaction) {
+		return new Statement(this, sql, transaction);
+	}
+
+	/**
+	 * 实例化数据访问对象<br>
+	 * 指定一个已有的Statement作为关联，将与当前的 Statement 形成事务，执行完成后将自动提交或回滚事务<br>
+	 * 如果未开启事务，则共用数据库链路，避免短时多次获取链路。
+	 *
+	 * @param sql 命名参数SQL语句
+	 * @param statement 关联的 Statement，应来自当前数据源
+	 * @return Statement 实例
+	 */
+	public Statement instance(String sql, Statement statement) {
+		return new Statement(sql, statement);
+	}
+
+	/**
+	 * 获取数据源名称
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * 获取数据库类型
+	 *
+	 * @return {@link Database#MYSQL}/{@link Database#ORACLE}/{@link Database#H2}
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * 获取数据库方言
+	 */
+	public Dialect getDialect() {
+		return dialect;
+	}
+
+	/**
+	 * 获取数据库URL
+	 *
+	 * @return URL / null 由外部数据源创建连接
+	 */
+	public String getURL() {
+		return url;
+	}
+
+	/**
+	 * 获取连接池
+	 */
+	public ConnectionPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * 获取主库连接池的标准数据源视图，获取的连接关闭时归还连接池；
+	 * 不经过从库路由和读己之写窗口
+	 */
+	public DataSource getDataSource() {
+		return view;
+	}
+}
@@ -0,0 +1,97 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.util.Properties;
+
+/**
+ * 数据库方言，描述不同数据库的驱动、推荐连接属性和语法差异<br>
+ * 内置 {@link Database#MYSQL}/{@link Database#ORACLE}/{@link Database#H2}，
+ * 其它数据库可实现此接口并通过 {@link java.util.ServiceLoader} 提供，按类型编号查找，同编号时替换内置方言。
+ *
+ * <pre>
+ * <code>
+ * module my.app {
+ *     provides com.joyzl.database.Dialect with my.app.PostgreSQLDialect;
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+public interface Dialect {
+
+	/**
+	 * 获取方言对应的数据库类型编号，内置类型为 1~3，扩展方言应避免使用
+	 */
+	int getType();
+
+	/**
+	 * 获取数据库名称
+	 */
+	String getName();
+
+	/**
+	 * 获取数据库驱动类名
+	 */
+	String getDriver();
+
+	/**
+	 * 获取推荐的连接属性，连接池选项启用时({@link PoolOptions#setDialectProperties(boolean)})附加URL中未指定的属性；
+	 * 由外部数据源创建连接时不适用
+	 *
+	 * @return 新的属性对象，可修改
+	 */
+	default Properties getProperties() {
+		return new Properties();
+	}
+
+	/**
+	 * 获取流式读取查询结果的每次读取记录数，使驱动分批读取而不是缓存全部结果
+	 *
+	 * @return 0 驱动默认
+	 */
+	default int getStreamingFetchSize() {
+		return 0;
+	}
+
+	/**
+	 * 获取验证查询，驱动不支持 isValid 时执行
+	 */
+	default String getValidationQuery() {
+		return "SELECT 1";
+	}
+
+	/**
+	 * 指定命令的语句是否请求返回自动生成的键，查询等语句不请求以免驱动额外处理；
+	 * 默认仅 INSERT、REPLACE 和 MERGE 请求，其它语句执行后不能读取自动生成的键
+	 *
+	 * @param command SQL命令，如 INSERT
+	 */
+	default boolean isGeneratedKeys(String command) {
+		return "INSERT".equalsIgnoreCase(command) || "REPLACE".equalsIgnoreCase(command) || "MERGE".equalsIgnoreCase(command);
+	}
+
+	/**
+	 * 生成插入或更新(按键存在与否)的命名参数SQL，参数名称与列名相同
+	 *
+	 * @param table 表名
+	 * @param keys 键列，按键判断记录是否存在
+	 * @param columns 其它列，记录存在时更新
+	 * @return 命名参数SQL
+	 */
+	String upsert(String table, String[] keys, String[] columns);
+
+	/**
+	 * 获取指定类型的方言
+	 *
+	 * @param type {@link Database#MYSQL}/{@link Database#ORACLE}/{@link Database#H2} 或扩展方言的类型编号
+	 * @throws IllegalArgumentException 不支持的数据库类型
+	 */
+	static Dialect of(int type) {
+		return Dialects.get(type);
+	}
+}
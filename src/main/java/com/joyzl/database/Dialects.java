@@ -0,0 +1,56 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * 已知的数据库方言，内置方言之后加载 {@link ServiceLoader} 提供的方言
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class Dialects {
+
+	private final static Map<Integer, Dialect> DIALECTS = new HashMap<>();
+	static {
+		add(new MySQLDialect());
+		add(new OracleDialect());
+		add(new H2Dialect());
+		for (Dialect dialect : ServiceLoader.load(Dialect.class)) {
+			add(dialect);
+		}
+	}
+
+	private Dialects() {
+	}
+
+	private static void add(Dialect dialect) {
+		DIALECTS.put(dialect.getType(), dialect);
+	}
+
+	static Dialect get(int type) {
+		final Dialect dialect = DIALECTS.get(type);
+		if (dialect == null) {
+			throw new IllegalArgumentException("不支持的数据库类型 " + type);
+		}
+		return dialect;
+	}
+
+	/**
+	 * 以逗号连接列名，可指定前缀和后缀
+	 */
+	static StringBuilder join(StringBuilder builder, String[] columns, String prefix, String suffix) {
+		for (int index = 0; index < columns.length; index++) {
+			if (index > 0) {
+				builder.append(',');
+			}
+			builder.append(prefix).append(columns[index]).append(suffix);
+		}
+		return builder;
+	}
+}
@@ -0,0 +1,53 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+/**
+ * H2 嵌入式数据库方言，用于离线测试和基准测试；jdbc:h2:mem:database;MODE=MySQL
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class H2Dialect implements Dialect {
+
+	@Override
+	public int getType() {
+		return Database.H2;
+	}
+
+	@Override
+	public String getName() {
+		return "H2";
+	}
+
+	@Override
+	public String getDriver() {
+		return "org.h2.Driver";
+	}
+
+	@Override
+	public int getStreamingFetchSize() {
+		return 100;
+	}
+
+	@Override
+	public String upsert(String table, String[] keys, String[] columns) {
+		final StringBuilder builder = new StringBuilder("MERGE INTO ").append(table).append(" (");
+		Dialects.join(builder, keys, "", "");
+		if (columns.length > 0) {
+			builder.append(',');
+			Dialects.join(builder, columns, "", "");
+		}
+		builder.append(") KEY (");
+		Dialects.join(builder, keys, "", "");
+		builder.append(") VALUES (");
+		Dialects.join(builder, keys, "?", "");
+		if (columns.length > 0) {
+			builder.append(',');
+			Dialects.join(builder, columns, "?", "");
+		}
+		return builder.append(')').toString();
+	}
+}
@@ -0,0 +1,124 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.regex.Pattern;
+
+/**
+ * 从库复制延迟监测<br>
+ * 定期向主库心跳表写入当前时间，在下次写入之前从各从库读取，读取时间与从库中心跳时间之差即为复制延迟；
+ * 正常同步时测得的延迟约为监测间隔，是实际延迟的上限且随延迟连续增长，因此最大允许延迟须大于监测间隔。
+ * 心跳时间按应用服务器时钟写入和比较，不依赖数据库服务器时钟；多个应用实例共用心跳表时，
+ * 读取的心跳可能由其它实例写入，测得的延迟包含实例之间的时钟偏差，各应用服务器须保持时钟同步(如 NTP)。
+ * 表名拼接到SQL语句中，仅允许字母、数字、下划线组成的标识符，可带库名限定。
+ *
+ * <pre>
+ * CREATE TABLE heartbeat (id INT PRIMARY KEY, ts BIGINT)
+ * </pre>
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class Heartbeat implements Runnable {
+
+	// 心跳表名：[库名.]表名
+	final static Pattern TABLE = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+	private final DatabaseSource source;
+	private final String update;
+	private final String insert;
+	private final String select;
+	// 监测间隔(毫秒)
+	final long interval;
+	// 最大允许延迟(毫秒)
+	final long maximumLag;
+	// 上次是否成功写入心跳
+	private boolean beaten;
+
+	Heartbeat(DatabaseSource source, String table, long interval, long maximumLag) {
+		this.source = source;
+		this.interval = interval;
+		this.maximumLag = maximumLag;
+		update = "UPDATE " + table + " SET ts=? WHERE id=1";
+		insert = "INSERT INTO " + table + " (id,ts) VALUES (1,?)";
+		select = "SELECT ts FROM " + table + " WHERE id=1";
+	}
+
+	@Override
+	public void run() {
+		try {
+			// 主库上次无法写入时无法判断从库延迟，保持原状态
+			if (beaten) {
+				for (ConnectionPool replica : source.getReplicas()) {
+					replica.lag = probe(replica);
+				}
+			}
+			beaten = beat();
+		} catch (Exception e) {
+			// 忽略错误，避免后台监测终止
+		}
+	}
+
+	/**
+	 * 向主库写入心跳时间
+	 */
+	private boolean beat() {
+		final ConnectionPool pool = source.pool;
+		final PoolEntry entry;
+		try {
+			entry = pool.borrow();
+		} catch (SQLException e) {
+			return false;
+		}
+		try {
+			final long time = System.currentTimeMillis();
+			try (PreparedStatement statement = entry.connection.prepareStatement(update)) {
+				statement.setLong(1, time);
+				if (statement.executeUpdate() > 0) {
+					pool.requite(entry);
+					return true;
+				}
+			}
+			try (PreparedStatement statement = entry.connection.prepareStatement(insert)) {
+				statement.setLong(1, time);
+				statement.executeUpdate();
+			}
+			pool.requite(entry);
+			return true;
+		} catch (SQLException e) {
+			pool.remove(entry);
+			return false;
+		}
+	}
+
+	/**
+	 * 读取从库心跳时间并计算延迟
+	 */
+	private long probe(ConnectionPool replica) {
+		final PoolEntry entry;
+		try {
+			entry = replica.borrow();
+		} catch (SQLException e) {
+			return Long.MAX_VALUE;
+		}
+		try {
+			long lag = Long.MAX_VALUE;
+			try (PreparedStatement statement = entry.connection.prepareStatement(select);
+				ResultSet result = statement.executeQuery()) {
+				if (result.next()) {
+					lag = Math.max(0, System.currentTimeMillis() - result.getLong(1));
+				}
+			}
+			replica.requite(entry);
+			return lag;
+		} catch (SQLException e) {
+			replica.remove(entry);
+			return Long.MAX_VALUE;
+		}
+	}
+}
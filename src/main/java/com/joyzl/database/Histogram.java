@@ -0,0 +1,106 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗时分布统计<br>
+ * 按微秒数的二进制位数分桶，第 n 个桶记录 [2^(n-1), 2^n) 微秒的次数；
+ * 每个桶为分段计数器，多线程同时记录时不竞争同一变量，百分位数精确到桶的上限。
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class Histogram {
+
+	// 桶数量，最后一个桶记录超过 2^30 微秒(约18分钟)的次数
+	final static int BUCKETS = 32;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator maximum = new LongAccumulator(Math::max, 0);
+
+	Histogram() {
+		for (int index = 0; index < BUCKETS; index++) {
+			buckets[index] = new LongAdder();
+		}
+	}
+
+	/**
+	 * 记录一次耗时
+	 *
+	 * @param nanos 纳秒
+	 */
+	void record(long nanos) {
+		final long micros = nanos / 1000;
+		buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros))].increment();
+		total.add(micros);
+		maximum.accumulate(micros);
+	}
+
+	/**
+	 * 获取记录次数
+	 */
+	long count() {
+		long count = 0;
+		for (LongAdder bucket : buckets) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * 获取平均耗时(微秒)
+	 */
+	long mean() {
+		final long count = count();
+		return count > 0 ? total.sum() / count : 0;
+	}
+
+	/**
+	 * 获取最大耗时(微秒)
+	 */
+	long maximum() {
+		return maximum.get();
+	}
+
+	/**
+	 * 获取百分位耗时(微秒)，返回所在桶的上限
+	 *
+	 * @param percent 0~1
+	 */
+	long percentile(double percent) {
+		final long[] counts = counts();
+		long count = 0;
+		for (long value : counts) {
+			count += value;
+		}
+		if (count == 0) {
+			return 0;
+		}
+		final long target = Math.max(1, (long) Math.ceil(count * percent));
+		long sum = 0;
+		for (int index = 0; index < BUCKETS; index++) {
+			sum += counts[index];
+			if (sum >= target) {
+				return index == 0 ? 0 : Math.min((1L << index) - 1, maximum.get());
+			}
+		}
+		return maximum.get();
+	}
+
+	/**
+	 * 获取各桶的记录次数
+	 */
+	long[] counts() {
+		final long[] counts = new long[BUCKETS];
+		for (int index = 0; index < BUCKETS; index++) {
+			counts[index] = buckets[index].sum();
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,84 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.util.Properties;
+
+/**
+ * MySQL 方言<br>
+ * 推荐属性启用批量插入改写、客户端和服务端预编译语句缓存，以及本地会话状态以免查询自动提交等状态；
+ * 流式读取须将每次读取记录数设置为 Integer.MIN_VALUE。
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class MySQLDialect implements Dialect {
+
+	@Override
+	public int getType() {
+		return Database.MYSQL;
+	}
+
+	@Override
+	public String getName() {
+		return "MySQL";
+	}
+
+	@Override
+	public String getDriver() {
+		// MySQL 采用了新的包名称，原 com.mysql.jdbc.Driver
+		return "com.mysql.cj.jdbc.Driver";
+	}
+
+	@Override
+	public Properties getProperties() {
+		final Properties properties = new Properties();
+		// 批量插入改写为多值插入，一次往返
+		properties.setProperty("rewriteBatchedStatements", "true");
+		// 服务端预编译，客户端缓存预编译语句
+		properties.setProperty("useServerPrepStmts", "true");
+		properties.setProperty("cachePrepStmts", "true");
+		properties.setProperty("prepStmtCacheSize", "250");
+		properties.setProperty("prepStmtCacheSqlLimit", "2048");
+		// 自动提交、隔离级别等以本地状态为准，不查询服务器
+		properties.setProperty("useLocalSessionState", "true");
+		properties.setProperty("cacheServerConfiguration", "true");
+		properties.setProperty("cacheResultSetMetadata", "true");
+		return properties;
+	}
+
+	@Override
+	public int getStreamingFetchSize() {
+		return Integer.MIN_VALUE;
+	}
+
+	@Override
+	public String upsert(String table, String[] keys, String[] columns) {
+		final StringBuilder builder = new StringBuilder("INSERT INTO ").append(table).append(" (");
+		Dialects.join(builder, keys, "", "");
+		if (columns.length > 0) {
+			builder.append(',');
+			Dialects.join(builder, columns, "", "");
+		}
+		builder.append(") VALUES (");
+		Dialects.join(builder, keys, "?", "");
+		if (columns.length > 0) {
+			builder.append(',');
+			Dialects.join(builder, columns, "?", "");
+			// 行别名引用插入值(MySQL 8.0.19+)，VALUES(col) 自 8.0.20 起弃用
+			builder.append(") AS new ON DUPLICATE KEY UPDATE ");
+			for (int index = 0; index < columns.length; index++) {
+				if (index > 0) {
+					builder.append(',');
+				}
+				builder.append(columns[index]).append("=new.").append(columns[index]);
+			}
+		} else {
+			// 无其它列时忽略已存在的记录
+			builder.insert(6, " IGNORE").append(')');
+		}
+		return builder.toString();
+	}
+}
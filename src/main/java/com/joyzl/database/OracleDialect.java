@@ -0,0 +1,87 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.util.Properties;
+
+/**
+ * Oracle 方言<br>
+ * 推荐属性启用驱动隐式语句缓存并增大默认预取记录数；jdbc:oracle:thin:@myhost:1521/myorcldbservicename
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class OracleDialect implements Dialect {
+
+	@Override
+	public int getType() {
+		return Database.ORACLE;
+	}
+
+	@Override
+	public String getName() {
+		return "Oracle";
+	}
+
+	@Override
+	public String getDriver() {
+		return "oracle.jdbc.driver.OracleDriver";
+	}
+
+	@Override
+	public Properties getProperties() {
+		final Properties properties = new Properties();
+		// 隐式语句缓存，关闭的语句由驱动缓存并在相同SQL时复用
+		properties.setProperty("oracle.jdbc.implicitStatementCacheSize", "250");
+		// 驱动默认每次往返读取 10 条记录，增大以减少往返
+		properties.setProperty("defaultRowPrefetch", "100");
+		return properties;
+	}
+
+	@Override
+	public int getStreamingFetchSize() {
+		return 500;
+	}
+
+	@Override
+	public String getValidationQuery() {
+		return "SELECT 1 FROM DUAL";
+	}
+
+	@Override
+	public String upsert(String table, String[] keys, String[] columns) {
+		final StringBuilder builder = new StringBuilder("MERGE INTO ").append(table).append(" T USING (SELECT ");
+		for (int index = 0; index < keys.length; index++) {
+			builder.append(index > 0 ? "," : "").append('?').append(keys[index]).append(" AS ").append(keys[index]);
+		}
+		for (String column : columns) {
+			builder.append(",?").append(column).append(" AS ").append(column);
+		}
+		builder.append(" FROM DUAL) S ON (");
+		for (int index = 0; index < keys.length; index++) {
+			builder.append(index > 0 ? " AND " : "").append("T.").append(keys[index]).append("=S.").append(keys[index]);
+		}
+		builder.append(')');
+		if (columns.length > 0) {
+			builder.append(" WHEN MATCHED THEN UPDATE SET ");
+			for (int index = 0; index < columns.length; index++) {
+				builder.append(index > 0 ? "," : "").append("T.").append(columns[index]).append("=S.").append(columns[index]);
+			}
+		}
+		builder.append(" WHEN NOT MATCHED THEN INSERT (");
+		Dialects.join(builder, keys, "", "");
+		if (columns.length > 0) {
+			builder.append(',');
+			Dialects.join(builder, columns, "", "");
+		}
+		builder.append(") VALUES (");
+		Dialects.join(builder, keys, "S.", "");
+		if (columns.length > 0) {
+			builder.append(',');
+			Dialects.join(builder, columns, "S.", "");
+		}
+		return builder.append(')').toString();
+	}
+}
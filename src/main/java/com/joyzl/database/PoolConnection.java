@@ -0,0 +1,165 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 借出连接的代理，关闭时归还连接池而不是关闭数据库连接；
+ * 会话状态设置经 {@link PoolEntry} 缓存，状态未变化时不访问数据库。
+ * 经代理创建的 Statement / PreparedStatement / CallableStatement 被跟踪，归还连接时关闭未关闭的语句。
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class PoolConnection implements InvocationHandler {
+
+	private final PoolEntry entry;
+	// 经代理创建且未关闭的语句，连接不支持多线程并发使用
+	private final List<Object> statements = new ArrayList<>();
+	private Connection proxy;
+	private volatile boolean closed;
+
+	private PoolConnection(PoolEntry entry) {
+		this.entry = entry;
+	}
+
+	static Connection wrap(PoolEntry entry) {
+		final PoolConnection handler = new PoolConnection(entry);
+		handler.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+		return handler.proxy;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		switch (method.getName()) {
+			case "close":
+				close();
+				return null;
+			case "isClosed":
+				return closed || entry.connection.isClosed();
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "PoolConnection:" + entry.connection;
+		}
+		if (closed) {
+			throw new SQLException("连接已归还连接池");
+		}
+		switch (method.getName()) {
+			case "setAutoCommit":
+				entry.setAutoCommit((Boolean) args[0]);
+				return null;
+			case "getAutoCommit":
+				return entry.getAutoCommit();
+			case "setReadOnly":
+				entry.setReadOnly((Boolean) args[0]);
+				return null;
+			case "isReadOnly":
+				return entry.isReadOnly();
+			case "setTransactionIsolation":
+				entry.setTransactionIsolation((Integer) args[0]);
+				return null;
+			case "setCatalog":
+				entry.setCatalog((String) args[0]);
+				return null;
+			case "unwrap":
+				if (((Class<?>) args[0]).isInstance(proxy)) {
+					return proxy;
+				}
+				break;
+			case "isWrapperFor":
+				if (((Class<?>) args[0]).isInstance(proxy)) {
+					return true;
+				}
+				break;
+			case "createStatement":
+			case "prepareStatement":
+			case "prepareCall":
+				return track(method.getReturnType(), ShardRouter.call(entry.connection, method, args));
+		}
+		return ShardRouter.call(entry.connection, method, args);
+	}
+
+	/**
+	 * 代理并跟踪创建的语句，语句关闭时取消跟踪，getConnection 返回连接代理
+	 */
+	private Object track(Class<?> type, Object statement) {
+		final Object tracked = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (p, method, args) -> {
+			switch (method.getName()) {
+				case "close":
+					untrack(p);
+					break;
+				case "getConnection":
+					return proxy;
+				case "hashCode":
+					return System.identityHashCode(p);
+				case "equals":
+					return p == args[0];
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(p)) {
+						return p;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(p)) {
+						return true;
+					}
+					break;
+			}
+			return ShardRouter.call(statement, method, args);
+		});
+		statements.add(tracked);
+		return tracked;
+	}
+
+	private void untrack(Object statement) {
+		// 通常后创建的语句先关闭，从尾部查找
+		for (int index = statements.size() - 1; index >= 0; index--) {
+			if (statements.get(index) == statement) {
+				statements.remove(index);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 关闭未关闭的语句并归还连接池，仅首次关闭有效，数据库连接已关闭时移除
+	 */
+	private void close() throws SQLException {
+		if (!closed) {
+			closed = true;
+			SQLException exception = null;
+			for (int index = statements.size() - 1; index >= 0; index--) {
+				try {
+					((java.sql.Statement) statements.get(index)).close();
+				} catch (SQLException e) {
+					if (exception == null) {
+						exception = e;
+					} else {
+						exception.addSuppressed(e);
+					}
+				}
+			}
+			statements.clear();
+			if (entry.connection.isClosed()) {
+				entry.pool.remove(entry);
+			} else {
+				entry.pool.requite(entry);
+			}
+			if (exception != null) {
+				throw exception;
+			}
+		}
+	}
+}
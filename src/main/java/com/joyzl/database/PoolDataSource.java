@@ -0,0 +1,82 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * 连接池的标准数据源视图，供同一程序中的其它库共用连接池<br>
+ * 获取的连接关闭时归还连接池，会话状态经连接池条目缓存，归还时恢复。
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class PoolDataSource implements DataSource {
+
+	private final ConnectionPool pool;
+	private volatile PrintWriter writer;
+	private volatile int loginTimeout;
+
+	PoolDataSource(ConnectionPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return PoolConnection.wrap(pool.borrow());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException("连接池不支持指定用户获取连接");
+	}
+
+	@Override
+	public PrintWriter getLogWriter() throws SQLException {
+		return writer;
+	}
+
+	@Override
+	public void setLogWriter(PrintWriter out) throws SQLException {
+		writer = out;
+	}
+
+	@Override
+	public void setLoginTimeout(int seconds) throws SQLException {
+		loginTimeout = seconds;
+	}
+
+	@Override
+	public int getLoginTimeout() throws SQLException {
+		return loginTimeout;
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface.isInstance(this)) {
+			return iface.cast(this);
+		}
+		if (iface.isInstance(pool)) {
+			return iface.cast(pool);
+		}
+		throw new SQLException("不能转换为 " + iface.getName());
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this) || iface.isInstance(pool);
+	}
+}
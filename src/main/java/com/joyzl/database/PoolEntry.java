@@ -0,0 +1,270 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 连接池条目，封装数据库连接及其借用状态<br>
+ * 借用状态通过CAS切换，同一时刻只有一个线程能够借得此连接
+ * <p>
+ * 缓存连接的会话状态(自动提交、隔离级别、只读、目录)，通过此对象设置时与缓存相同则不访问数据库；
+ * 归还时仅恢复被修改的状态。借用者应通过此对象而不是直接调用 Connection 的对应方法设置会话状态。
+ * </p>
+ * <p>
+ * 启用语句缓存时缓存此连接的预编译语句，相同SQL再次执行时不必重新预编译，见 {@link StatementCache}。
+ * </p>
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+public final class PoolEntry {
+
+	/** 空闲 */
+	final static int IDLE = 0;
+	/** 使用中 */
+	final static int USING = 1;
+	/** 已移除 */
+	final static int REMOVED = -1;
+	// 隔离级别未知
+	private final static int UNKNOWN = -1;
+
+	final ConnectionPool pool;
+	final Connection connection;
+	final AtomicInteger state;
+	// 是否纳入连接池管理，溢出创建的连接归还时直接关闭
+	final boolean pooled;
+	// 创建时间(毫秒)
+	final long created;
+	// 过期时间(毫秒)，0 不过期，运行时修改最长存活时间时重新计算
+	volatile long expires;
+	// 最后归还时间(毫秒)，用于空闲超时和后进先出
+	volatile long accessed;
+	// 最后验证有效的时间(毫秒)，用于保活和免验证窗口
+	volatile long validated;
+	// 是否已借出
+	volatile boolean borrowed;
+	// 是否占用并发许可
+	volatile boolean limited;
+	// 借出时间(毫秒)，用于泄漏检测
+	long lent;
+	// 借出时间(纳秒)，用于统计占用时长
+	long since;
+	// 借用位置，按采样记录
+	Throwable trace;
+	// 是否已报告疑似泄漏
+	volatile boolean leaked;
+
+	// 会话状态缓存，自动提交和只读在创建时读取默认值，隔离级别和目录首次修改时读取默认值
+	private final boolean defaultAutoCommit;
+	private final boolean defaultReadOnly;
+	private boolean autoCommit;
+	private boolean readOnly;
+	private int isolation = UNKNOWN;
+	private int defaultIsolation = UNKNOWN;
+	private String catalog;
+	private String defaultCatalog;
+	private boolean catalogKnown;
+	// 预编译语句缓存，首次使用时创建
+	private StatementCache statements;
+
+	PoolEntry(ConnectionPool pool, Connection connection, boolean pooled) throws SQLException {
+		this.pool = pool;
+		this.connection = connection;
+		this.pooled = pooled;
+		state = new AtomicInteger(USING);
+		accessed = created = System.currentTimeMillis();
+		// 外部数据源的连接可能默认禁用自动提交或只读
+		autoCommit = defaultAutoCommit = connection.getAutoCommit();
+		readOnly = defaultReadOnly = connection.isReadOnly();
+	}
+
+	/**
+	 * 创建不含连接的标记条目
+	 */
+	PoolEntry() {
+		pool = null;
+		connection = null;
+		pooled = false;
+		state = new AtomicInteger(REMOVED);
+		created = 0;
+		defaultAutoCommit = true;
+		defaultReadOnly = false;
+	}
+
+	final boolean acquire() {
+		return state.compareAndSet(IDLE, USING);
+	}
+
+	final void close() {
+		if (statements != null) {
+			statements.clear();
+		}
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			// 忽略错误
+		}
+	}
+
+	/**
+	 * 获取数据库连接
+	 *
+	 * @return Connection
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * 获取是否自动提交，返回缓存的状态
+	 */
+	public boolean getAutoCommit() {
+		return autoCommit;
+	}
+
+	/**
+	 * 设置是否自动提交，与当前状态相同时不访问数据库
+	 */
+	public void setAutoCommit(boolean value) throws SQLException {
+		if (autoCommit == value) {
+			pool.skipped();
+			return;
+		}
+		connection.setAutoCommit(value);
+		autoCommit = value;
+	}
+
+	/**
+	 * 获取是否只读，返回缓存的状态
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * 设置是否只读，与当前状态相同时不访问数据库，归还时恢复
+	 */
+	public void setReadOnly(boolean value) throws SQLException {
+		if (readOnly == value) {
+			pool.skipped();
+			return;
+		}
+		connection.setReadOnly(value);
+		readOnly = value;
+	}
+
+	/**
+	 * 设置事务隔离级别，与当前状态相同时不访问数据库，归还时恢复
+	 *
+	 * @param level {@link Connection#TRANSACTION_READ_COMMITTED} 等
+	 */
+	public void setTransactionIsolation(int level) throws SQLException {
+		if (isolation == UNKNOWN) {
+			isolation = defaultIsolation = connection.getTransactionIsolation();
+		}
+		if (isolation == level) {
+			pool.skipped();
+			return;
+		}
+		connection.setTransactionIsolation(level);
+		isolation = level;
+	}
+
+	/**
+	 * 设置目录(MySQL 数据库)，与当前状态相同时不访问数据库，归还时恢复
+	 */
+	public void setCatalog(String value) throws SQLException {
+		if (!catalogKnown) {
+			catalog = defaultCatalog = connection.getCatalog();
+			catalogKnown = true;
+		}
+		if (Objects.equals(catalog, value)) {
+			pool.skipped();
+			return;
+		}
+		connection.setCatalog(value);
+		catalog = value;
+	}
+
+	/**
+	 * 取出缓存的预编译语句
+	 *
+	 * @param sql 转换后的SQL
+	 * @return PreparedStatement / null 未缓存或未启用语句缓存
+	 */
+	final PreparedStatement take(String sql) {
+		if (!pooled || pool.statementCacheSize <= 0) {
+			return null;
+		}
+		if (statements == null) {
+			statements = new StatementCache();
+		}
+		final PreparedStatement statement = statements.take(sql);
+		pool.cached(statement != null);
+		return statement;
+	}
+
+	/**
+	 * 归还预编译语句，启用语句缓存时清除参数后缓存，否则关闭
+	 *
+	 * @param sql 转换后的SQL
+	 */
+	final void recycle(String sql, PreparedStatement statement) throws SQLException {
+		final int capacity = pool.statementCacheSize;
+		if (!pooled || capacity <= 0 || statement.isClosed()) {
+			statement.close();
+			return;
+		}
+		try {
+			statement.clearParameters();
+			statement.clearBatch();
+		} catch (SQLException e) {
+			// 无法重用
+			statement.close();
+			return;
+		}
+		if (statements == null) {
+			statements = new StatementCache();
+		}
+		pool.evicted(statements.put(sql, statement, capacity));
+	}
+
+	/**
+	 * 获取缓存的预编译语句数量
+	 */
+	public int getCachedStatements() {
+		return statements == null ? 0 : statements.size();
+	}
+
+	/**
+	 * 恢复被修改的会话状态，未提交的事务将回滚
+	 */
+	final void reset() throws SQLException {
+		if (!autoCommit) {
+			connection.rollback();
+		}
+		if (autoCommit != defaultAutoCommit) {
+			connection.setAutoCommit(defaultAutoCommit);
+			autoCommit = defaultAutoCommit;
+		}
+		if (readOnly != defaultReadOnly) {
+			connection.setReadOnly(defaultReadOnly);
+			readOnly = defaultReadOnly;
+		}
+		if (isolation != defaultIsolation) {
+			connection.setTransactionIsolation(defaultIsolation);
+			isolation = defaultIsolation;
+		}
+		if (catalogKnown && !Objects.equals(catalog, defaultCatalog)) {
+			connection.setCatalog(defaultCatalog);
+			catalog = defaultCatalog;
+		}
+	}
+}
@@ -0,0 +1,449 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+/**
+ * 连接池选项
+ *
+ * <pre>
+ * <code>
+ * PoolOptions options = new PoolOptions();
+ * options.setMaximum(20);
+ * options.setMinimumIdle(5);
+ * options.setInitializationTimeout(10000);
+ * options.setBounded(true);
+ * options.setBorrowTimeout(30000);
+ * options.setValidationWindow(500);
+ * options.setKeepaliveTime(120000);
+ * options.setMaxLifetime(1800000);
+ * options.setIdleTimeout(600000);
+ * options.setCreationConcurrency(4);
+ * options.setCreationRate(50);
+ * options.setLeakDetectionThreshold(60000);
+ * options.setSizing(PoolOptions.ADAPTIVE);
+ * Database.initialize(Database.MYSQL, url, user, password, options);
+ * </code>
+ * </pre>
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+public final class PoolOptions {
+
+	/** 固定容量 */
+	public final static int FIXED = 0;
+	/** 仅建议容量 */
+	public final static int RECOMMEND = 1;
+	/** 自动调节容量 */
+	public final static int ADAPTIVE = 2;
+
+	// 最大连接数
+	private int maximum = 10;
+	// 最小空闲连接数
+	private int minimumIdle;
+	// 初始化时等待最小空闲连接就绪的超时(毫秒)，0 不等待
+	private long initializationTimeout;
+	// 是否限制连接总数，限制时无空闲连接的借用将排队等待
+	private boolean bounded;
+	// 是否限制并发借用数为最大连接数
+	private boolean limited;
+	// 借用等待超时(毫秒)
+	private long borrowTimeout = 30000;
+	// 免验证窗口(毫秒)，连接归还后在此时间内借出无须验证
+	private long validationWindow = 500;
+	// 验证超时(毫秒)
+	private long validationTimeout = 1000;
+	// 空闲保活间隔(毫秒)，空闲超过此时间的连接由后台线程验证，0 不保活
+	private long keepaliveTime = 120000;
+	// 连接最长存活时间(毫秒)，0 不限制
+	private long maxLifetime = 1800000;
+	// 空闲超时(毫秒)，超过最小空闲连接数的空闲连接超时后关闭，0 不关闭
+	private long idleTimeout = 600000;
+	// 并行创建连接数
+	private int creationConcurrency = 4;
+	// 每秒最多创建连接数，0 不限制
+	private int creationRate;
+	// 泄漏检测阈值(毫秒)，连接借出超过此时间视为疑似泄漏，0 不检测
+	private long leakDetectionThreshold;
+	// 每多少次借用记录一次借用位置，0 不记录
+	private int leakTraceRate = 100;
+	// 每个连接缓存的预编译语句数量，0 不缓存
+	private int statementCacheSize;
+	// 附加方言推荐的连接属性
+	private boolean dialectProperties;
+	// 容量调节方式
+	private int sizing = FIXED;
+	// 容量调节周期(毫秒)
+	private long sizingInterval = 10000;
+
+	public PoolOptions() {
+	}
+
+	public PoolOptions(int maximum) {
+		setMaximum(maximum);
+	}
+
+	/**
+	 * 获取最大连接数
+	 */
+	public int getMaximum() {
+		return maximum;
+	}
+
+	/**
+	 * 设置最大连接数
+	 *
+	 * @param value 1~n
+	 */
+	public void setMaximum(int value) {
+		if (value < 1) {
+			throw new IllegalArgumentException("最大连接数必须大于零");
+		}
+		maximum = value;
+	}
+
+	/**
+	 * 获取最小空闲连接数
+	 */
+	public int getMinimumIdle() {
+		return minimumIdle;
+	}
+
+	/**
+	 * 设置最小空闲连接数，连接池创建时并行预建连接，连接被移除后由后台线程补足
+	 *
+	 * @param value 0~maximum，超过最大连接数时按最大连接数
+	 */
+	public void setMinimumIdle(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("最小空闲连接数不能小于零");
+		}
+		minimumIdle = value;
+	}
+
+	/**
+	 * 获取初始化等待超时(毫秒)
+	 */
+	public long getInitializationTimeout() {
+		return initializationTimeout;
+	}
+
+	/**
+	 * 设置初始化等待超时(毫秒)，初始化时阻塞直至最小空闲连接就绪或超时
+	 *
+	 * @param value 0 不等待
+	 */
+	public void setInitializationTimeout(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("初始化等待超时不能小于零");
+		}
+		initializationTimeout = value;
+	}
+
+	/**
+	 * 获取是否限制连接总数
+	 */
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	/**
+	 * 设置是否限制连接总数
+	 *
+	 * @param value true 连接总数不超过最大连接数，无空闲连接时按先后顺序排队等待，超时抛出异常 / false
+	 *            无空闲连接时新建溢出连接，溢出连接归还时关闭
+	 */
+	public void setBounded(boolean value) {
+		bounded = value;
+	}
+
+	/**
+	 * 获取是否限制并发借用数
+	 */
+	public boolean isLimited() {
+		return limited;
+	}
+
+	/**
+	 * 设置是否限制并发借用数，启用后同时借用连接的线程数不超过最大连接数，其余线程在公平信号量上排队等待，
+	 * 适用于大量虚拟线程访问数据库的情形
+	 *
+	 * @param value true 限制 / false 不限制
+	 */
+	public void setLimited(boolean value) {
+		limited = value;
+	}
+
+	/**
+	 * 获取借用等待超时(毫秒)
+	 */
+	public long getBorrowTimeout() {
+		return borrowTimeout;
+	}
+
+	/**
+	 * 设置借用等待超时(毫秒)，仅限制连接总数或并发借用数时有效
+	 *
+	 * @param value 1~n
+	 */
+	public void setBorrowTimeout(long value) {
+		if (value < 1) {
+			throw new IllegalArgumentException("借用等待超时必须大于零");
+		}
+		borrowTimeout = value;
+	}
+
+	/**
+	 * 获取免验证窗口(毫秒)
+	 */
+	public long getValidationWindow() {
+		return validationWindow;
+	}
+
+	/**
+	 * 设置免验证窗口(毫秒)，连接归还后在此时间内再次借出时不执行 isValid 验证
+	 *
+	 * @param value 0 每次借出均验证
+	 */
+	public void setValidationWindow(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("免验证窗口不能小于零");
+		}
+		validationWindow = value;
+	}
+
+	/**
+	 * 获取验证超时(毫秒)
+	 */
+	public long getValidationTimeout() {
+		return validationTimeout;
+	}
+
+	/**
+	 * 设置验证超时(毫秒)，isValid 以秒为单位，不足一秒按一秒计
+	 *
+	 * @param value 1~n
+	 */
+	public void setValidationTimeout(long value) {
+		if (value < 1) {
+			throw new IllegalArgumentException("验证超时必须大于零");
+		}
+		validationTimeout = value;
+	}
+
+	/**
+	 * 获取空闲保活间隔(毫秒)
+	 */
+	public long getKeepaliveTime() {
+		return keepaliveTime;
+	}
+
+	/**
+	 * 设置空闲保活间隔(毫秒)，空闲超过此时间的连接由后台线程验证，无效连接被移除
+	 *
+	 * @param value 0 不保活
+	 */
+	public void setKeepaliveTime(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("保活间隔不能小于零");
+		}
+		keepaliveTime = value;
+	}
+
+	/**
+	 * 获取连接最长存活时间(毫秒)
+	 */
+	public long getMaxLifetime() {
+		return maxLifetime;
+	}
+
+	/**
+	 * 设置连接最长存活时间(毫秒)，应小于数据库服务端的连接超时(如 MySQL wait_timeout)；
+	 * 每个连接随机提前至多 2.5% 过期，避免同时创建的连接同时过期，使用中的连接归还时关闭
+	 *
+	 * @param value 0 不限制
+	 */
+	public void setMaxLifetime(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("最长存活时间不能小于零");
+		}
+		maxLifetime = value;
+	}
+
+	/**
+	 * 获取空闲超时(毫秒)
+	 */
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * 设置空闲超时(毫秒)，空闲超过此时间的连接由后台线程关闭，连接池收缩至最小空闲连接数
+	 *
+	 * @param value 0 不关闭
+	 */
+	public void setIdleTimeout(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("空闲超时不能小于零");
+		}
+		idleTimeout = value;
+	}
+
+	/**
+	 * 获取并行创建连接数
+	 */
+	public int getCreationConcurrency() {
+		return creationConcurrency;
+	}
+
+	/**
+	 * 设置并行创建连接数，连接由后台创建线程新建，借用线程等待新建的连接而不直接连接数据库，
+	 * 数据库重启后大量借用线程不会同时发起连接
+	 *
+	 * @param value 1~n
+	 */
+	public void setCreationConcurrency(int value) {
+		if (value < 1) {
+			throw new IllegalArgumentException("并行创建连接数必须大于零");
+		}
+		creationConcurrency = value;
+	}
+
+	/**
+	 * 获取每秒最多创建连接数
+	 */
+	public int getCreationRate() {
+		return creationRate;
+	}
+
+	/**
+	 * 设置每秒最多创建连接数，创建线程按均匀间隔新建连接，平滑数据库恢复时的连接风暴
+	 *
+	 * @param value 0 不限制
+	 */
+	public void setCreationRate(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("创建速率不能小于零");
+		}
+		creationRate = value;
+	}
+
+	/**
+	 * 获取泄漏检测阈值(毫秒)
+	 */
+	public long getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
+
+	/**
+	 * 设置泄漏检测阈值(毫秒)，连接借出(如 Statement 未关闭)超过此时间由后台线程报告疑似泄漏，
+	 * 应大于最长的正常事务耗时
+	 *
+	 * @param value 0 不检测
+	 */
+	public void setLeakDetectionThreshold(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("泄漏检测阈值不能小于零");
+		}
+		leakDetectionThreshold = value;
+	}
+
+	/**
+	 * 获取借用位置记录间隔
+	 */
+	public int getLeakTraceRate() {
+		return leakTraceRate;
+	}
+
+	/**
+	 * 设置借用位置记录间隔，启用泄漏检测时每 n 次借用随机记录一次调用栈，报告疑似泄漏时输出；
+	 * 报告的连接未记录借用位置时，此后每次借用均记录
+	 *
+	 * @param value 1 每次借用均记录 / n 平均每 n 次记录一次 / 0 不记录
+	 */
+	public void setLeakTraceRate(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("借用位置记录间隔不能小于零");
+		}
+		leakTraceRate = value;
+	}
+
+	/**
+	 * 获取每个连接缓存的预编译语句数量
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * 设置每个连接缓存的预编译语句数量，以转换后的SQL为键按最近使用淘汰；
+	 * 缓存的语句在服务端保持打开，总数为连接数乘以此值，应小于数据库的预编译语句上限(如 MySQL max_prepared_stmt_count)
+	 *
+	 * @param value 0 不缓存
+	 */
+	public void setStatementCacheSize(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("语句缓存数量不能小于零");
+		}
+		statementCacheSize = value;
+	}
+
+	/**
+	 * 获取是否附加方言推荐的连接属性
+	 */
+	public boolean isDialectProperties() {
+		return dialectProperties;
+	}
+
+	/**
+	 * 设置是否附加方言推荐的连接属性({@link Dialect#getProperties()})，URL中已指定的属性不附加，由外部数据源创建连接时不适用；
+	 * 推荐属性可能改变驱动行为，如 MySQL 的 rewriteBatchedStatements 使批处理不返回各条更新数量，
+	 * 此时 {@link Statement#getUpdatedCount()} 按每条 1 计数
+	 *
+	 * @param value true 附加 / false 不附加(默认)
+	 */
+	public void setDialectProperties(boolean value) {
+		dialectProperties = value;
+	}
+
+	/**
+	 * 获取容量调节方式
+	 */
+	public int getSizing() {
+		return sizing;
+	}
+
+	/**
+	 * 设置容量调节方式，按借用等待、利用率和占用时长在最小空闲连接数(至少为1)和最大连接数之间调节连接池容量
+	 *
+	 * @param value {@link #FIXED} 固定为最大连接数 / {@link #RECOMMEND} 仅给出建议容量，不调节 /
+	 *            {@link #ADAPTIVE} 自动调节
+	 */
+	public void setSizing(int value) {
+		if (value != FIXED && value != RECOMMEND && value != ADAPTIVE) {
+			throw new IllegalArgumentException("不支持的容量调节方式 " + value);
+		}
+		sizing = value;
+	}
+
+	/**
+	 * 获取容量调节周期(毫秒)
+	 */
+	public long getSizingInterval() {
+		return sizingInterval;
+	}
+
+	/**
+	 * 设置容量调节周期(毫秒)，每个周期统计一次并计算建议容量
+	 *
+	 * @param value 1~n
+	 */
+	public void setSizingInterval(long value) {
+		if (value < 1) {
+			throw new IllegalArgumentException("容量调节周期必须大于零");
+		}
+		sizingInterval = value;
+	}
+}
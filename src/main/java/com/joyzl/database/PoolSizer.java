@@ -0,0 +1,119 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+/**
+ * 连接池容量调节<br>
+ * 每个周期按连接占用总时长除以周期时长估算平均并发占用(利特尔法则，包含查询耗时和吞吐量)，
+ * 以指数移动平均平滑后按目标利用率计算建议容量；借用等待比例过高或出现超时时立即扩大。
+ * 扩大立即生效，缩小须连续多个周期建议且每次仅缩小少量，避免容量反复振荡。
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class PoolSizer implements Runnable {
+
+	// 平均并发占用的平滑系数
+	private final static double ALPHA = 0.3;
+	// 目标利用率，留出余量应对突发
+	private final static double UTILIZATION = 0.75;
+	// 借用等待比例超过时扩大
+	private final static double WAIT_RATIO = 0.05;
+	// 连续建议缩小的周期数达到时缩小
+	private final static int SHRINK_PERIODS = 3;
+
+	private final ConnectionPool pool;
+	private final int minimum;
+	private final int maximum;
+	// 是否调节连接池容量，否则仅给出建议
+	private final boolean adaptive;
+
+	// 上一周期的累计值
+	private long time;
+	private long borrows;
+	private long waits;
+	private long timeouts;
+	private long held;
+	// 平滑后的平均并发占用
+	private double demand = -1;
+	private int shrinks;
+	private volatile int recommended;
+
+	PoolSizer(ConnectionPool pool, int minimum, int maximum, boolean adaptive) {
+		this.pool = pool;
+		this.minimum = minimum;
+		this.maximum = maximum;
+		this.adaptive = adaptive;
+		recommended = maximum;
+		time = System.nanoTime();
+	}
+
+	@Override
+	public void run() {
+		try {
+			adjust();
+		} catch (Exception e) {
+			// 忽略错误，避免后台维护终止
+		}
+	}
+
+	private void adjust() {
+		final long now = System.nanoTime();
+		final long elapsed = now - time;
+		final long borrowed = pool.getBorrowCount() - borrows;
+		final long waited = pool.getWaitCount() - waits;
+		final long timedout = pool.getTimeoutCount() - timeouts;
+		final long occupied = pool.getHeldTime() - held;
+		time = now;
+		borrows += borrowed;
+		waits += waited;
+		timeouts += timedout;
+		held += occupied;
+		if (elapsed <= 0) {
+			return;
+		}
+
+		// 已归还连接的占用时长，尚未归还的按当前借出数量计
+		final double concurrency = Math.max((double) occupied / elapsed, pool.getActive());
+		demand = demand < 0 ? concurrency : ALPHA * concurrency + (1 - ALPHA) * demand;
+
+		final int current = recommended;
+		int target = (int) Math.ceil(demand / UTILIZATION);
+		if (timedout > 0 || borrowed > 0 && (double) waited / borrowed > WAIT_RATIO) {
+			// 借用线程饥饿，至少扩大四分之一
+			target = Math.max(target, current + Math.max(1, current / 4));
+		}
+		target = Math.max(minimum, Math.min(maximum, target));
+
+		int next = current;
+		if (target > current) {
+			shrinks = 0;
+			next = target;
+		} else if (target < current) {
+			if (++shrinks >= SHRINK_PERIODS) {
+				shrinks = 0;
+				next = Math.max(target, current - Math.max(1, current / 10));
+			}
+		} else {
+			shrinks = 0;
+		}
+
+		if (next != current) {
+			recommended = next;
+			if (adaptive) {
+				pool.resize(next);
+			} else {
+				System.err.println("建议连接池容量[" + pool.getName() + "] " + current + " -> " + next + "，平均并发占用 " + String.format("%.1f", demand));
+			}
+		}
+	}
+
+	/**
+	 * 获取建议的连接池容量
+	 */
+	int recommended() {
+		return recommended;
+	}
+}
@@ -0,0 +1,174 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 预编译查询<br>
+ * 持有已分析的命名参数SQL，不可变且线程安全，可作为常量创建一次后由多个线程同时执行；
+ * 每次执行时借用连接并取出连接缓存的预编译语句(启用语句缓存时)，执行完成后归还，不再分析SQL。
+ * <p>
+ * {@code static final Query FIND = Query.of("SELECT * FROM `users` WHERE `id`=?id");}<br>
+ * {@code User user = FIND.first(s -> s.setValue("id", 1), s -> new User(s.getValue("name", "")));}
+ * </p>
+ * 未指定数据源时在执行时使用默认数据源，可在数据库初始化之前创建。
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+public final class Query {
+
+	private final DatabaseSource source;
+	private final NamedSQL namedsql;
+
+	private Query(DatabaseSource source, NamedSQL namedsql) {
+		this.source = source;
+		this.namedsql = namedsql;
+	}
+
+	/**
+	 * 创建默认数据源的预编译查询
+	 *
+	 * @param sql 命名参数SQL语句
+	 * @return Query
+	 */
+	public static Query of(String sql) {
+		return new Query(null, NamedSQL.get(sql));
+	}
+
+	/**
+	 * 创建指定数据源的预编译查询
+	 *
+	 * @param source 数据源
+	 * @param sql 命名参数SQL语句
+	 * @return Query
+	 */
+	public static Query of(DatabaseSource source, String sql) {
+		if (source == null) {
+			throw new IllegalArgumentException("数据源不能为空");
+		}
+		return new Query(source, NamedSQL.get(sql));
+	}
+
+	/**
+	 * 实例化数据访问对象，使用完成后应立即关闭
+	 *
+	 * @return Statement 实例
+	 */
+	public Statement instance() {
+		return new Statement(source(), namedsql, false);
+	}
+
+	/**
+	 * 实例化数据访问对象，如果开启事务则执行完成后自动提交或回滚
+	 *
+	 * @param transaction 是否开启事务
+	 * @return Statement 实例
+	 */
+	public Statement instance(boolean transaction) {
+		return new Statement(source(), namedsql, transaction);
+	}
+
+	/**
+	 * 实例化数据访问对象，与关联对象共用数据库连接并形成事务
+	 *
+	 * @param statement 关联的 Statement，应来自相同数据源
+	 * @return Statement 实例
+	 */
+	public Statement instance(Statement statement) {
+		return new Statement(namedsql, statement);
+	}
+
+	/**
+	 * 执行更新
+	 *
+	 * @param binder 设置参数
+	 * @return 更新的记录数量
+	 */
+	public int update(Consumer<Statement> binder) {
+		try (Statement statement = instance()) {
+			binder.accept(statement);
+			statement.execute();
+			return statement.getUpdatedCount();
+		}
+	}
+
+	/**
+	 * 执行查询并读取首条记录
+	 *
+	 * @param binder 设置参数
+	 * @param mapper 读取当前记录
+	 * @return 首条记录 / null 无记录
+	 */
+	public <T> T first(Consumer<Statement> binder, Function<Statement, T> mapper) {
+		try (Statement statement = instance()) {
+			binder.accept(statement);
+			if (statement.execute() && statement.nextRecord()) {
+				return mapper.apply(statement);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * 执行查询并读取所有记录
+	 *
+	 * @param binder 设置参数
+	 * @param mapper 读取当前记录
+	 * @return 所有记录，无记录时为空集合
+	 */
+	public <T> List<T> list(Consumer<Statement> binder, Function<Statement, T> mapper) {
+		try (Statement statement = instance()) {
+			binder.accept(statement);
+			final List<T> records = new ArrayList<>();
+			if (statement.execute()) {
+				while (statement.nextRecord()) {
+					records.add(mapper.apply(statement));
+				}
+			}
+			return records;
+		}
+	}
+
+	private DatabaseSource source() {
+		return source == null ? Database.source() : source;
+	}
+
+	/**
+	 * 获取参数槽位，可作为常量与查询对象一同创建
+	 *
+	 * @param name 参数名称
+	 * @return 参数槽位
+	 * @throws IllegalArgumentException 参数不存在
+	 */
+	public int slot(String name) {
+		return namedsql.slot(name);
+	}
+
+	/**
+	 * 获取命名SQL
+	 */
+	public NamedSQL getNamedSQL() {
+		return namedsql;
+	}
+
+	/**
+	 * 获取数据源
+	 *
+	 * @return DatabaseSource / null 执行时使用默认数据源
+	 */
+	public DatabaseSource getSource() {
+		return source;
+	}
+
+	@Override
+	public String toString() {
+		return namedsql.getNamedSQL();
+	}
+}
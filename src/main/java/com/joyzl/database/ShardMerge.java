@@ -0,0 +1,727 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 分片查询结果合并<br>
+ * 由查询语句分析合并方式：有 ORDER BY 时按排序列多路归并，选择列含 COUNT/SUM/MIN/MAX 时合并相邻的同组记录，
+ * DISTINCT 或无聚合的 GROUP BY 时合并相邻的相同记录，有 LIMIT n 或 FETCH FIRST n ROWS ONLY(n 可为参数)时合并后截取；
+ * 否则按分片顺序连接。<br>
+ * 合并过程逐条读取各分片游标，每个分片仅保留当前记录，内存占用与分片数相关而与记录数无关。
+ * <p>
+ * 分组、去重和聚合须以全部非聚合列作为前导排序列，否则同组记录不相邻而无法合并；不支持 AVG、COUNT(DISTINCT)、
+ * HAVING(各分片按部分聚合值筛选)和带偏移量的 LIMIT(各分片分别跳过记录将导致结果错误)，执行前拒绝；
+ * 字符串按 Java 自然顺序比较，可能与数据库排序规则不同。
+ * </p>
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class ShardMerge {
+
+	final static int COUNT = 1;
+	final static int SUM = 2;
+	final static int MIN = 3;
+	final static int MAX = 4;
+
+	private final static Pattern SELECT = Pattern.compile("^\\s*SELECT\\s+(DISTINCT\\s+)?");
+	private final static Pattern FROM = Pattern.compile("\\bFROM\\b");
+	private final static Pattern ORDER_BY = Pattern.compile("\\bORDER\\s+BY\\b");
+	private final static Pattern END = Pattern.compile("\\b(LIMIT|OFFSET|FETCH|FOR|LOCK)\\b");
+	private final static Pattern GROUP_BY = Pattern.compile("\\bGROUP\\s+BY\\b");
+	private final static Pattern HAVING = Pattern.compile("\\bHAVING\\b");
+	private final static Pattern LIMIT = Pattern.compile("\\bLIMIT\\s+(\\d+|\\?)\\s*$");
+	private final static Pattern FETCH = Pattern.compile("\\bFETCH\\s+(FIRST|NEXT)\\s+(\\d+|\\?)?\\s*ROWS?\\s+ONLY\\s*$");
+	private final static Pattern TRUNCATE = Pattern.compile("\\b(LIMIT|FETCH)\\b");
+	private final static Pattern OFFSET = Pattern.compile("\\bLIMIT\\s+[^\\s,]+\\s*,|\\bOFFSET\\b");
+	private final static Pattern ALIAS = Pattern.compile("\\s+(AS\\s+)?(\\S+)$");
+	private final static Pattern AGGREGATE = Pattern.compile("^(COUNT|SUM|MIN|MAX|AVG)\\s*\\(\\s*(DISTINCT\\b)?");
+	private final static Pattern DESC = Pattern.compile("\\s+(ASC|DESC)(\\s+NULLS\\s+(FIRST|LAST))?\\s*$");
+
+	// 排序列名或序号，及是否降序
+	private final String[] orders;
+	private final boolean[] descending;
+	// 按结果列序号(1~n)的聚合函数，0 非聚合列；无聚合时为 null
+	private final int[] aggregates;
+	// 合并后截取数量，-1 不截取
+	private final long limit;
+	// 截取数量的参数序号(1~n)，0 截取数量不是参数
+	private final int parameter;
+
+	private ShardMerge(String[] orders, boolean[] descending, int[] aggregates, long limit, int parameter) {
+		this.orders = orders;
+		this.descending = descending;
+		this.aggregates = aggregates;
+		this.limit = limit;
+		this.parameter = parameter;
+	}
+
+	/**
+	 * 分析查询语句的合并方式
+	 */
+	static ShardMerge parse(String sql) {
+		final String masked = mask(sql);
+
+		// 偏移量须在合并后跳过，各分片分别跳过将遗漏记录
+		if (OFFSET.matcher(masked).find()) {
+			throw new IllegalStateException("分片合并不支持带偏移量的 LIMIT");
+		}
+		// 各分片按部分聚合值筛选将遗漏记录
+		if (HAVING.matcher(masked).find()) {
+			throw new IllegalStateException("分片合并不支持 HAVING");
+		}
+
+		// 选择列中的聚合函数
+		int[] aggregates = null;
+		String[] labels = null;
+		final Matcher select = SELECT.matcher(masked);
+		if (select.find()) {
+			final Matcher from = FROM.matcher(masked);
+			final int end = from.find(select.end()) ? from.start() : masked.length();
+			final ArrayList<String> columns = split(sql, masked, select.end(), end);
+			final int[] functions = new int[columns.size() + 1];
+			labels = new String[columns.size() + 1];
+			boolean aggregate = false, star = false;
+			for (int index = 0; index < columns.size(); index++) {
+				labels[index + 1] = label(columns.get(index));
+				final String column = columns.get(index).toUpperCase();
+				if (column.equals("*") || column.endsWith(".*")) {
+					star = true;
+				}
+				final Matcher matcher = AGGREGATE.matcher(column);
+				if (matcher.find()) {
+					if ("AVG".equals(matcher.group(1))) {
+						throw new IllegalStateException("分片合并不支持 AVG，请查询 SUM 和 COUNT");
+					}
+					if (matcher.group(2) != null) {
+						throw new IllegalStateException("分片合并不支持 COUNT(DISTINCT)");
+					}
+					switch (matcher.group(1)) {
+						case "COUNT":
+							functions[index + 1] = COUNT;
+							break;
+						case "SUM":
+							functions[index + 1] = SUM;
+							break;
+						case "MIN":
+							functions[index + 1] = MIN;
+							break;
+						default:
+							functions[index + 1] = MAX;
+					}
+					aggregate = true;
+				}
+			}
+			// 去重和分组与聚合相同，合并相邻的同组记录
+			if (aggregate || select.group(1) != null || GROUP_BY.matcher(masked).find()) {
+				if (star) {
+					throw new IllegalStateException("分片合并分组、去重或聚合查询不能选择 *");
+				}
+				aggregates = functions;
+			}
+		}
+
+		// 排序列
+		String[] orders = null;
+		boolean[] descending = null;
+		Matcher matcher = ORDER_BY.matcher(masked);
+		int order = -1;
+		while (matcher.find()) {
+			order = matcher.end();
+		}
+		if (order >= 0) {
+			matcher = END.matcher(masked);
+			final int end = matcher.find(order) ? matcher.start() : masked.length();
+			final ArrayList<String> columns = split(sql, masked, order, end);
+			orders = new String[columns.size()];
+			descending = new boolean[columns.size()];
+			for (int index = 0; index < columns.size(); index++) {
+				String column = columns.get(index);
+				matcher = DESC.matcher(column.toUpperCase());
+				if (matcher.find()) {
+					descending[index] = "DESC".equals(matcher.group(1));
+					column = column.substring(0, matcher.start()).trim();
+				}
+				// 去除表名限定和标识符引号
+				final int dot = column.lastIndexOf('.');
+				if (dot >= 0) {
+					column = column.substring(dot + 1);
+				}
+				orders[index] = column.replace("`", "").replace("\"", "");
+			}
+		}
+
+		// 分组聚合的非聚合列须为前导排序列，同组记录才能相邻
+		if (aggregates != null) {
+			int groups = 0;
+			for (int column = 1; column < aggregates.length; column++) {
+				if (aggregates[column] == 0) {
+					groups++;
+				}
+			}
+			if (groups > 0) {
+				if (orders == null || orders.length < groups) {
+					throw new IllegalStateException("分片合并分组、去重或聚合查询须按全部非聚合列排序");
+				}
+				for (int index = 0; index < groups; index++) {
+					final int column = position(orders[index], labels);
+					if (column <= 0 || aggregates[column] != 0) {
+						throw new IllegalStateException("分片合并分组、去重或聚合查询须按全部非聚合列排序");
+					}
+				}
+			}
+		}
+
+		// 合并后截取，截取数量为参数时执行时按参数值截取
+		long limit = -1;
+		int parameter = 0;
+		matcher = LIMIT.matcher(masked);
+		int group = 1;
+		if (!matcher.find()) {
+			matcher = FETCH.matcher(masked);
+			group = 2;
+			if (!matcher.find()) {
+				matcher = null;
+			}
+		}
+		if (matcher != null) {
+			final String value = matcher.group(group);
+			if (value == null) {
+				limit = 1;
+			} else if (value.equals("?")) {
+				parameter = parameters(sql, matcher.start(group)) + 1;
+			} else {
+				limit = Long.parseLong(value);
+			}
+		} else if (TRUNCATE.matcher(masked).find()) {
+			throw new IllegalStateException("分片合并不支持的 LIMIT 或 FETCH");
+		}
+		return new ShardMerge(orders, descending, aggregates, limit, parameter);
+	}
+
+	/**
+	 * 统计指定位置之前的参数数量，忽略引号内的问号
+	 */
+	private static int parameters(String sql, int end) {
+		int count = 0;
+		char quote = 0;
+		for (int index = 0; index < end; index++) {
+			final char c = sql.charAt(index);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '\'' || c == '"' || c == '`') {
+				quote = c;
+			} else if (c == '?') {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 获取合并后截取数量，截取数量为参数时取已设置的参数值
+	 *
+	 * @param setters 按参数序号记录的参数设置方法
+	 * @param parameters 按参数序号记录的参数设置
+	 * @return -1 不截取
+	 */
+	long limit(Method[] setters, Object[][] parameters) {
+		if (parameter == 0) {
+			return limit;
+		}
+		final Object value = setters[parameter - 1] == null || setters[parameter - 1].getName().equals("setNull") ? null : parameters[parameter - 1][1];
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		throw new IllegalStateException("分片合并的截取数量须设置为整数");
+	}
+
+	/**
+	 * 选择列的结果列名：别名，或去除表名限定和标识符引号的表达式
+	 */
+	private static String label(String column) {
+		final String masked = mask(column);
+		final Matcher matcher = ALIAS.matcher(masked);
+		// AS 别名，或仅由表达式和别名两部分组成时省略 AS 的别名
+		if (matcher.find() && (matcher.group(1) != null || matcher.start() == masked.indexOf(' '))) {
+			column = column.substring(matcher.start(2));
+		} else {
+			final int dot = column.lastIndexOf('.');
+			if (dot >= 0) {
+				column = column.substring(dot + 1);
+			}
+		}
+		return column.replace("`", "").replace("\"", "");
+	}
+
+	/**
+	 * 排序列对应的选择列序号(1~n)，排序列为序号或与结果列名相同(忽略大小写)
+	 *
+	 * @return 选择列序号 / 0 不是选择列
+	 */
+	private static int position(String order, String[] labels) {
+		try {
+			final int column = Integer.parseInt(order);
+			return column < labels.length ? column : 0;
+		} catch (NumberFormatException e) {
+			for (int column = 1; column < labels.length; column++) {
+				if (order.equalsIgnoreCase(labels[column])) {
+					return column;
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * 屏蔽引号和括号内的字符并转为大写，保持字符位置不变，便于查找顶层关键字
+	 */
+	static String mask(String sql) {
+		final char[] chars = new char[sql.length()];
+		char quote = 0;
+		int depth = 0;
+		for (int index = 0; index < chars.length; index++) {
+			final char c = sql.charAt(index);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+				chars[index] = '_';
+			} else if (c == '\'' || c == '"' || c == '`') {
+				quote = c;
+				chars[index] = '_';
+			} else if (c == '(') {
+				depth++;
+				chars[index] = '_';
+			} else if (c == ')') {
+				depth--;
+				chars[index] = '_';
+			} else if (depth > 0) {
+				chars[index] = '_';
+			} else {
+				chars[index] = Character.toUpperCase(c);
+			}
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * 按顶层逗号拆分
+	 */
+	private static ArrayList<String> split(String sql, String masked, int begin, int end) {
+		final ArrayList<String> items = new ArrayList<>();
+		int start = begin;
+		for (int index = begin; index < end; index++) {
+			if (masked.charAt(index) == ',') {
+				items.add(sql.substring(start, index).trim());
+				start = index + 1;
+			}
+		}
+		items.add(sql.substring(start, end).trim());
+		return items;
+	}
+
+	/**
+	 * 合并各分片查询结果，单个分片且无须截取时直接返回
+	 *
+	 * @param limit 合并后截取数量，-1 不截取
+	 */
+	ResultSet merge(ResultSet[] results, long limit) throws SQLException {
+		if (orders == null && aggregates == null && limit < 0) {
+			if (results.length == 1) {
+				return results[0];
+			}
+			return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class }, new Concatenation(results));
+		}
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class }, new Merging(results, limit));
+	}
+
+	/**
+	 * 按分片顺序连接各分片结果集
+	 */
+	static final class Concatenation implements InvocationHandler {
+
+		private final ResultSet[] results;
+		private int index;
+
+		Concatenation(ResultSet[] results) {
+			this.results = results;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "next":
+					while (index < results.length) {
+						if (results[index].next()) {
+							return true;
+						}
+						index++;
+					}
+					return false;
+				case "close":
+					for (ResultSet result : results) {
+						result.close();
+					}
+					return null;
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					return proxy == args[0];
+			}
+			return ShardRouter.call(results[Math.min(index, results.length - 1)], method, args);
+		}
+	}
+
+	/**
+	 * 多路归并各分片结果集，按需合并同组聚合记录
+	 */
+	final class Merging implements InvocationHandler {
+
+		private final ResultSet[] results;
+		// 合并后截取数量，-1 不截取
+		private final long limit;
+		// 各分片当前记录的排序值
+		private final Object[][] keys;
+		private final PriorityQueue<Integer> queue;
+		// 排序列序号
+		private int[] columns;
+		// 当前记录所在分片，聚合时为 -1 使用合并后的记录
+		private int current = -1;
+		// 聚合合并后的当前记录，按列序号(1~n)
+		private Object[] row;
+		private boolean started;
+		private boolean wasNull;
+		private long count;
+
+		Merging(ResultSet[] results, long limit) {
+			this.results = results;
+			this.limit = limit;
+			keys = new Object[results.length][];
+			queue = new PriorityQueue<>(Math.max(1, results.length), this::compare);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			final String name = method.getName();
+			switch (name) {
+				case "next":
+					return next();
+				case "close":
+					for (ResultSet result : results) {
+						result.close();
+					}
+					return null;
+				case "wasNull":
+					if (aggregates != null) {
+						return wasNull;
+					}
+					break;
+				case "findColumn":
+					return results[0].findColumn((String) args[0]);
+				case "getMetaData":
+					return results[0].getMetaData();
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					return proxy == args[0];
+			}
+			if (aggregates != null) {
+				if (row == null) {
+					throw new SQLException("没有当前记录");
+				}
+				if (name.startsWith("get") && args != null && args.length >= 1) {
+					final int column = args[0] instanceof Integer ? (Integer) args[0] : results[0].findColumn((String) args[0]);
+					final Object value = row[column];
+					wasNull = value == null;
+					return convert(value, method.getReturnType());
+				}
+				return ShardRouter.call(results[0], method, args);
+			}
+			if (current < 0) {
+				throw new SQLException("没有当前记录");
+			}
+			return ShardRouter.call(results[current], method, args);
+		}
+
+		private boolean next() throws SQLException {
+			if (!started) {
+				started = true;
+				if (orders != null) {
+					columns = new int[orders.length];
+					for (int index = 0; index < orders.length; index++) {
+						columns[index] = column(orders[index]);
+					}
+				}
+				for (int index = 0; index < results.length; index++) {
+					advance(index);
+				}
+			} else if (current >= 0) {
+				advance(current);
+			}
+			current = -1;
+			row = null;
+			if (limit >= 0 && count >= limit) {
+				return false;
+			}
+			final Integer head = queue.poll();
+			if (head == null) {
+				return false;
+			}
+			count++;
+			if (aggregates == null) {
+				current = head;
+				return true;
+			}
+
+			// 读取并合并相邻的同组记录
+			final ResultSet result = results[head];
+			row = new Object[aggregates.length];
+			for (int column = 1; column < aggregates.length; column++) {
+				row[column] = result.getObject(column);
+			}
+			advance(head);
+			Integer next;
+			while ((next = queue.peek()) != null && group(results[next])) {
+				queue.poll();
+				for (int column = 1; column < aggregates.length; column++) {
+					if (aggregates[column] != 0) {
+						row[column] = aggregate(aggregates[column], row[column], results[next].getObject(column));
+					}
+				}
+				advance(next);
+			}
+			return true;
+		}
+
+		/**
+		 * 移动分片游标，有记录时读取排序值并加入归并队列
+		 */
+		private void advance(int shard) throws SQLException {
+			final ResultSet result = results[shard];
+			if (result.next()) {
+				if (columns != null) {
+					final Object[] values = new Object[columns.length];
+					for (int index = 0; index < columns.length; index++) {
+						values[index] = result.getObject(columns[index]);
+					}
+					keys[shard] = values;
+				}
+				queue.offer(shard);
+			} else {
+				keys[shard] = null;
+			}
+		}
+
+		/**
+		 * 分片当前记录的非聚合列是否与合并记录相同
+		 */
+		private boolean group(ResultSet result) throws SQLException {
+			for (int column = 1; column < aggregates.length; column++) {
+				if (aggregates[column] == 0 && !Objects.equals(row[column], result.getObject(column))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private int column(String order) throws SQLException {
+			boolean number = !order.isEmpty();
+			for (int index = 0; index < order.length(); index++) {
+				if (!Character.isDigit(order.charAt(index))) {
+					number = false;
+					break;
+				}
+			}
+			if (number) {
+				return Integer.parseInt(order);
+			}
+			try {
+				return results[0].findColumn(order);
+			} catch (SQLException e) {
+				throw new IllegalStateException("分片合并的排序列须在查询结果中 " + order, e);
+			}
+		}
+
+		private int compare(Integer a, Integer b) {
+			if (columns == null) {
+				return Integer.compare(a, b);
+			}
+			final Object[] x = keys[a];
+			final Object[] y = keys[b];
+			for (int index = 0; index < columns.length; index++) {
+				int value = ShardMerge.compare(x[index], y[index]);
+				if (value != 0) {
+					return descending[index] ? -value : value;
+				}
+			}
+			// 排序值相同时按分片顺序，保持结果稳定
+			return Integer.compare(a, b);
+		}
+	}
+
+	/**
+	 * 比较排序值，null 最小
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static int compare(Object a, Object b) {
+		if (a == b) {
+			return 0;
+		}
+		if (a == null) {
+			return -1;
+		}
+		if (b == null) {
+			return 1;
+		}
+		if (a instanceof Number && b instanceof Number && a.getClass() != b.getClass()) {
+			return decimal(a).compareTo(decimal(b));
+		}
+		return ((Comparable) a).compareTo(b);
+	}
+
+	/**
+	 * 合并聚合值
+	 */
+	static Object aggregate(int function, Object a, Object b) {
+		if (a == null) {
+			return b;
+		}
+		if (b == null) {
+			return a;
+		}
+		switch (function) {
+			case COUNT:
+			case SUM:
+				if (a instanceof BigDecimal || b instanceof BigDecimal) {
+					return decimal(a).add(decimal(b));
+				}
+				if (a instanceof Double || a instanceof Float || b instanceof Double || b instanceof Float) {
+					return ((Number) a).doubleValue() + ((Number) b).doubleValue();
+				}
+				if (a instanceof BigInteger || b instanceof BigInteger) {
+					return decimal(a).add(decimal(b)).toBigInteger();
+				}
+				if (a instanceof Integer && b instanceof Integer) {
+					return Math.addExact((Integer) a, (Integer) b);
+				}
+				return Math.addExact(((Number) a).longValue(), ((Number) b).longValue());
+			case MIN:
+				return compare(a, b) <= 0 ? a : b;
+			default:
+				return compare(a, b) >= 0 ? a : b;
+		}
+	}
+
+	private static BigDecimal decimal(Object value) {
+		if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		if (value instanceof BigInteger) {
+			return new BigDecimal((BigInteger) value);
+		}
+		if (value instanceof Double || value instanceof Float) {
+			return BigDecimal.valueOf(((Number) value).doubleValue());
+		}
+		return BigDecimal.valueOf(((Number) value).longValue());
+	}
+
+	/**
+	 * 将合并记录的列值转换为 ResultSet.getXXX 的返回类型
+	 */
+	static Object convert(Object value, Class<?> type) throws SQLException {
+		if (type == Object.class) {
+			return value;
+		}
+		if (type.isPrimitive()) {
+			if (type == boolean.class) {
+				if (value == null) {
+					return false;
+				}
+				if (value instanceof Boolean) {
+					return value;
+				}
+				return ((Number) value).intValue() != 0;
+			}
+			final Number number = value == null ? 0 : value instanceof Boolean ? ((Boolean) value ? 1 : 0) : (Number) value;
+			if (type == int.class) {
+				return number.intValue();
+			}
+			if (type == long.class) {
+				return number.longValue();
+			}
+			if (type == short.class) {
+				return number.shortValue();
+			}
+			if (type == byte.class) {
+				return number.byteValue();
+			}
+			if (type == float.class) {
+				return number.floatValue();
+			}
+			if (type == double.class) {
+				return number.doubleValue();
+			}
+		}
+		if (value == null || type.isInstance(value)) {
+			return value;
+		}
+		if (type == String.class) {
+			return value.toString();
+		}
+		if (type == BigDecimal.class && value instanceof Number) {
+			return decimal(value);
+		}
+		if (type == Timestamp.class) {
+			if (value instanceof LocalDateTime) {
+				return Timestamp.valueOf((LocalDateTime) value);
+			}
+			if (value instanceof java.util.Date) {
+				return new Timestamp(((java.util.Date) value).getTime());
+			}
+		}
+		if (type == Date.class) {
+			if (value instanceof LocalDate) {
+				return Date.valueOf((LocalDate) value);
+			}
+			if (value instanceof LocalDateTime) {
+				return Date.valueOf(((LocalDateTime) value).toLocalDate());
+			}
+			if (value instanceof java.util.Date) {
+				return new Date(((java.util.Date) value).getTime());
+			}
+		}
+		if (type == Time.class) {
+			if (value instanceof LocalTime) {
+				return Time.valueOf((LocalTime) value);
+			}
+			if (value instanceof java.util.Date) {
+				return new Time(((java.util.Date) value).getTime());
+			}
+		}
+		throw new SQLException("无法将 " + value.getClass().getName() + " 转换为 " + type.getName());
+	}
+}
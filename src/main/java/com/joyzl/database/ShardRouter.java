@@ -0,0 +1,380 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * 分片语句路由<br>
+ * 以代理 PreparedStatement 记录参数设置，设置分片键参数时获取对应分片的连接并重放已记录的参数；
+ * 未设置分片键执行时按分片数据源配置抛出异常或在所有分片并行执行，查询结果由 {@link ShardMerge} 合并。
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class ShardRouter implements InvocationHandler {
+
+	private final ShardedSource shards;
+	private final NamedSQL namedsql;
+	private final boolean transaction;
+	private final PreparedStatement proxy;
+
+	// 按参数序号记录的参数设置
+	private final Method[] setters;
+	private final Object[][] parameters;
+	// 其它须重放的设置，如输出参数注册，每次执行后清除
+	private final ArrayList<Method> methods = new ArrayList<>();
+	private final ArrayList<Object[]> arguments = new ArrayList<>();
+
+	// 已打开的分片语句
+	private final DatabaseSource[] sources;
+	private final PoolEntry[] entries;
+	private final PreparedStatement[] statements;
+	private int count;
+	// 当前路由的分片序号，-1 广播
+	private int shard = -1;
+	private boolean batch;
+	// 广播查询的结果合并方式
+	private ShardMerge merge;
+
+	ShardRouter(ShardedSource shards, NamedSQL namedsql, boolean transaction) {
+		this.shards = shards;
+		this.namedsql = namedsql;
+		this.transaction = transaction;
+		setters = new Method[namedsql.names.length];
+		parameters = new Object[namedsql.names.length][];
+		sources = new DatabaseSource[shards.size()];
+		entries = new PoolEntry[shards.size()];
+		statements = new PreparedStatement[shards.size()];
+
+		final Class<?> type = namedsql.isCall() ? CallableStatement.class : PreparedStatement.class;
+		proxy = (PreparedStatement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, this);
+	}
+
+	/**
+	 * 获取代理语句，由 {@link Statement} 作为语句对象使用
+	 */
+	PreparedStatement proxy() {
+		return proxy;
+	}
+
+	/**
+	 * 执行前确保已打开分片语句，未设置分片键且未启用广播时抛出异常
+	 */
+	void open() throws SQLException {
+		if (count == 0) {
+			if (!shards.isBroadcast()) {
+				throw new IllegalStateException("未设置分片键 ?" + shards.getKey());
+			}
+			if ("SELECT".equalsIgnoreCase(namedsql.getSQLCommand())) {
+				// 执行前分析合并方式，不支持的合并不执行查询
+				merge = namedsql.merge;
+				if (merge == null) {
+					namedsql.merge = merge = ShardMerge.parse(namedsql.getExcuteSQL());
+				}
+			}
+			for (int index = 0; index < shards.size(); index++) {
+				open(shards.getShard(index));
+				if (merge != null) {
+					// 未指定时按方言流式读取，各分片仅缓存少量记录
+					final int size = shards.getFetchSize() != 0 ? shards.getFetchSize() : sources[index].dialect.getStreamingFetchSize();
+					if (size != 0) {
+						statements[index].setFetchSize(size);
+					}
+				}
+			}
+			shard = -1;
+		}
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		final String name = method.getName();
+		switch (name) {
+			case "addBatch":
+				if (count == 0 || shard < 0) {
+					throw new IllegalStateException("批处理须设置分片键 ?" + shards.getKey());
+				}
+				batch = true;
+				return forward(method, args);
+			case "clearBatch":
+				batch = false;
+				return forward(method, args);
+			case "execute":
+			case "executeQuery":
+			case "executeUpdate":
+			case "executeLargeUpdate":
+			case "executeBatch":
+			case "executeLargeBatch":
+				open();
+				try {
+					if (count == 1) {
+						batch = false;
+						return call(statements[0], method, args);
+					}
+					return broadcast(method, args);
+				} finally {
+					// 输出参数等在每次执行前重新设置，避免重复使用时无限增长
+					methods.clear();
+					arguments.clear();
+				}
+			case "clearParameters":
+				// 清除已记录的参数设置而不是记录后重放
+				Arrays.fill(setters, null);
+				Arrays.fill(parameters, null);
+				return forward(method, args);
+			case "getResultSet":
+			case "getGeneratedKeys":
+				if (count > 1) {
+					return results(method, args);
+				}
+				return first(method, args);
+			case "getUpdateCount":
+				if (count > 1) {
+					int sum = -1;
+					for (int index = 0; index < count; index++) {
+						final int value = statements[index].getUpdateCount();
+						if (value >= 0) {
+							sum = sum < 0 ? value : sum + value;
+						}
+					}
+					return sum;
+				}
+				return first(method, args);
+			case "close":
+				close(false);
+				return null;
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "ShardRouter:" + namedsql.getExcuteSQL();
+		}
+		if (name.startsWith("set") || name.equals("registerOutParameter")) {
+			if (args != null && args.length >= 2 && args[0] instanceof Integer && name.startsWith("set")) {
+				// 参数设置，同一参数仅保留最后一次
+				final int index = (Integer) args[0] - 1;
+				setters[index] = method;
+				parameters[index] = args;
+				if (namedsql.names[index].equals(shards.getKey())) {
+					route(name.equals("setNull") ? null : args[1], method, args);
+					return null;
+				}
+			} else {
+				methods.add(method);
+				arguments.add(args);
+			}
+			return forward(method, args);
+		}
+		return first(method, args);
+	}
+
+	/**
+	 * 按分片键值路由，已打开其它分片时释放后重新打开并重放所有设置
+	 */
+	private void route(Object value, Method method, Object[] args) throws SQLException {
+		final int target = shards.route(value);
+		if (count == 1 && shard == target) {
+			call(statements[0], method, args);
+			return;
+		}
+		if (count > 0) {
+			if (transaction || batch) {
+				throw new IllegalStateException("事务或批处理中的分片键不能路由至其它分片");
+			}
+			close(false);
+		}
+		open(shards.getShard(target));
+		shard = target;
+	}
+
+	/**
+	 * 获取分片连接并创建语句，重放已记录的设置
+	 */
+	private void open(DatabaseSource source) throws SQLException {
+		final PoolEntry entry;
+		if (!transaction && namedsql.isQuery()) {
+			entry = source.getReadConnection();
+		} else {
+			entry = source.getConnection();
+		}
+		final PreparedStatement statement;
+		try {
+			entry.setAutoCommit(!transaction);
+			statement = Statement.prepare(source, entry, namedsql);
+			replay(statement);
+		} catch (SQLException e) {
+			entry.pool.remove(entry);
+			throw e;
+		}
+		sources[count] = source;
+		entries[count] = entry;
+		statements[count] = statement;
+		count++;
+	}
+
+	private void replay(PreparedStatement statement) throws SQLException {
+		for (int index = 0; index < setters.length; index++) {
+			if (setters[index] != null) {
+				call(statement, setters[index], parameters[index]);
+			}
+		}
+		for (int index = 0; index < methods.size(); index++) {
+			call(statement, methods.get(index), arguments.get(index));
+		}
+	}
+
+	/**
+	 * 提交事务(如果有)，关闭所有分片语句并归还连接
+	 */
+	void close(boolean error) throws SQLException {
+		SQLException exception = null;
+		for (int index = 0; index < count; index++) {
+			try {
+				if (error && transaction && !entries[index].connection.isClosed()) {
+					// 广播时仅首个分片在执行失败时回滚
+					entries[index].connection.rollback();
+				}
+				if (merge != null) {
+					// 流式读取修改了每次读取记录数，不缓存
+					statements[index].close();
+				}
+				Statement.release(sources[index], entries[index], statements[index], namedsql, false, error);
+			} catch (SQLException e) {
+				if (exception == null) {
+					exception = e;
+				}
+			}
+			sources[index] = null;
+			entries[index] = null;
+			statements[index] = null;
+		}
+		count = 0;
+		batch = false;
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	/**
+	 * 在所有分片并行执行，当前线程执行首个分片；
+	 * 等待所有分片执行结束后再抛出首个错误，避免关闭时仍有语句在执行
+	 */
+	private Object broadcast(Method method, Object[] args) throws SQLException {
+		final ArrayList<Future<Object>> futures = new ArrayList<>(count - 1);
+		for (int index = 1; index < count; index++) {
+			final PreparedStatement statement = statements[index];
+			futures.add(shards.scatter(() -> call(statement, method, args)));
+		}
+
+		SQLException exception = null;
+		RuntimeException failure = null;
+		boolean results = false, interrupted = false;
+		Object value = null;
+		for (int index = 0; index < count; index++) {
+			try {
+				if (index == 0) {
+					value = call(statements[0], method, args);
+				} else {
+					// 中断时继续等待，结束后恢复中断状态
+					for (boolean done = false; !done;) {
+						try {
+							value = futures.get(index - 1).get();
+							done = true;
+						} catch (InterruptedException e) {
+							interrupted = true;
+						}
+					}
+				}
+				if (value instanceof Boolean) {
+					results |= (Boolean) value;
+				}
+			} catch (SQLException e) {
+				exception = exception == null ? e : exception;
+			} catch (RuntimeException e) {
+				failure = failure == null ? e : failure;
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					failure = failure == null ? (RuntimeException) e.getCause() : failure;
+				} else if (e.getCause() instanceof SQLException) {
+					exception = exception == null ? (SQLException) e.getCause() : exception;
+				} else {
+					exception = exception == null ? new SQLException(e.getCause()) : exception;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		if (exception != null) {
+			throw exception;
+		}
+		return results;
+	}
+
+	private Object results(Method method, Object[] args) throws SQLException {
+		final ArrayList<ResultSet> results = new ArrayList<>(count);
+		for (int index = 0; index < count; index++) {
+			final ResultSet result = (ResultSet) call(statements[index], method, args);
+			if (result != null) {
+				results.add(result);
+			}
+		}
+		if (results.isEmpty()) {
+			return null;
+		}
+		final ResultSet[] array = results.toArray(new ResultSet[results.size()]);
+		if (merge != null && method.getName().equals("getResultSet")) {
+			return merge.merge(array, merge.limit(setters, parameters));
+		}
+		return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class }, new ShardMerge.Concatenation(array));
+	}
+
+	private Object forward(Method method, Object[] args) throws SQLException {
+		Object value = null;
+		for (int index = 0; index < count; index++) {
+			value = call(statements[index], method, args);
+		}
+		return value;
+	}
+
+	private Object first(Method method, Object[] args) throws SQLException {
+		if (count == 0) {
+			throw new IllegalStateException("未设置分片键 ?" + shards.getKey());
+		}
+		return call(statements[0], method, args);
+	}
+
+	static Object call(Object target, Method method, Object[] args) throws SQLException {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof SQLException) {
+				throw (SQLException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new SQLException(e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new SQLException(e);
+		}
+	}
+}
@@ -0,0 +1,193 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片数据源，按分片键参数值将语句路由至多个数据源之一<br>
+ * 语句创建时不获取连接，设置分片键参数值后获取对应分片的连接，此前设置的参数值将被重放；
+ * 未设置分片键执行时默认抛出异常，启用广播后在所有分片并行执行。
+ * <p>
+ * 广播查询的结果逐条合并为一个游标：有 ORDER BY 时按排序列多路归并，COUNT/SUM/MIN/MAX 聚合按组合并，
+ * 有 LIMIT n 时合并后截取；各分片仅保留当前记录，不缓存全部结果。
+ * 分组聚合须按分组列排序，不支持 AVG 和 COUNT(DISTINCT)。
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * ShardedSource users = new ShardedSource("user", Database.source("users0"), Database.source("users1"));
+ *
+ * try (Statement statement = users.instance("SELECT * FROM `users` WHERE `id`=?user")){
+ *     statement.setValue("user", 1024);
+ *     ...
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+public final class ShardedSource {
+
+	private final String key;
+	private final DatabaseSource[] shards;
+	// 未设置分片键时是否在所有分片执行
+	private volatile boolean broadcast;
+	// 广播查询的每次读取记录数，0 按方言
+	private volatile int fetchSize;
+	// 广播并行执行线程
+	private final ThreadPoolExecutor scatter;
+
+	/**
+	 * 创建分片数据源
+	 *
+	 * @param key 分片键参数名称，对应SQL中的 ?key
+	 * @param shards 分片数据源，顺序决定路由结果，不能变更
+	 */
+	public ShardedSource(String key, DatabaseSource... shards) {
+		if (key == null || key.isEmpty()) {
+			throw new IllegalArgumentException("分片键不能为空");
+		}
+		if (shards == null || shards.length == 0) {
+			throw new IllegalArgumentException("分片数据源不能为空");
+		}
+		for (DatabaseSource shard : shards) {
+			if (shard == null) {
+				throw new IllegalArgumentException("分片数据源不能为空");
+			}
+		}
+		this.key = key;
+		this.shards = shards.clone();
+
+		scatter = new ThreadPoolExecutor(shards.length, shards.length, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			final Thread thread = new Thread(runnable, "database-scatter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scatter.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * 提交广播并行执行任务
+	 */
+	<T> Future<T> scatter(Callable<T> task) {
+		return scatter.submit(task);
+	}
+
+	/**
+	 * 计算分片键值对应的分片序号；整数按值取模，其它类型按字符串哈希取模
+	 *
+	 * @param value 分片键值
+	 * @return 0~n-1
+	 */
+	public int route(Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("分片键值不能为空");
+		}
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return (int) Math.floorMod(((Number) value).longValue(), (long) shards.length);
+		}
+		return Math.floorMod(value.toString().hashCode(), shards.length);
+	}
+
+	/**
+	 * 实例化数据访问对象，设置分片键参数值后获取连接
+	 *
+	 * @param sql 命名参数SQL语句
+	 * @return Statement 实例
+	 */
+	public Statement instance(String sql) {
+		return new Statement(this, sql, false);
+	}
+
+	/**
+	 * 实例化数据访问对象，设置分片键参数值后获取连接<br>
+	 * 事务限于单个分片，开启事务后分片键不能路由至其它分片
+	 *
+	 * @param sql 命名参数SQL语句
+	 * @param transaction 是否开启事务
+	 * @return Statement 实例
+	 */
+	public Statement instance(String sql, boolean transaction) {
+		return new Statement(this, sql, transaction);
+	}
+
+	/**
+	 * 获取分片键参数名称
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * 获取分片数量
+	 */
+	public int size() {
+		return shards.length;
+	}
+
+	/**
+	 * 获取指定序号的分片数据源
+	 */
+	public DatabaseSource getShard(int index) {
+		return shards[index];
+	}
+
+	/**
+	 * 获取所有分片数据源
+	 */
+	public List<DatabaseSource> getShards() {
+		return Collections.unmodifiableList(Arrays.asList(shards));
+	}
+
+	/**
+	 * 获取未设置分片键时是否广播
+	 */
+	public boolean isBroadcast() {
+		return broadcast;
+	}
+
+	/**
+	 * 设置未设置分片键时是否广播
+	 *
+	 * @param value true 在所有分片并行执行，查询结果合并为一个游标；各分片独立提交，不保证原子性 / false
+	 *            执行时抛出 {@link IllegalStateException}
+	 */
+	public void setBroadcast(boolean value) {
+		broadcast = value;
+	}
+
+	/**
+	 * 获取广播查询的每次读取记录数
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * 设置广播查询的每次读取记录数，使驱动分批读取而不是缓存全部结果；
+	 * 未设置时按分片的数据库方言流式读取，如 MySQL 为 Integer.MIN_VALUE 逐条读取
+	 *
+	 * @param value 0 按方言
+	 */
+	public void setFetchSize(int value) {
+		fetchSize = value;
+	}
+
+	/**
+	 * 关闭广播并行执行线程，不关闭分片数据源
+	 */
+	public void close() {
+		scatter.shutdown();
+	}
+}
@@ -0,0 +1,74 @@
+/*-
+ * www.joyzl.com
+ * 中翌智联（重庆）科技有限公司
+ * Copyright © JOY-Links Company. All rights reserved.
+ */
+package com.joyzl.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * 连接的预编译语句缓存<br>
+ * 以转换后的SQL为键缓存 PreparedStatement 和 CallableStatement，按最近归还顺序淘汰；
+ * 使用中的语句从缓存中取出，同一连接上的多个相同语句互不共用。
+ * 仅由借得连接的线程访问，不需要同步。
+ *
+ * @author ZhangXi 2026年10月14日
+ */
+final class StatementCache {
+
+	// 按归还顺序排列，首个为最久未使用
+	private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>();
+
+	/**
+	 * 取出缓存的语句
+	 *
+	 * @return PreparedStatement / null 未缓存
+	 */
+	PreparedStatement take(String sql) {
+		return statements.remove(sql);
+	}
+
+	/**
+	 * 缓存归还的语句，已缓存相同语句时关闭归还的语句
+	 *
+	 * @param capacity 缓存容量
+	 * @return 淘汰的语句数量
+	 */
+	int put(String sql, PreparedStatement statement, int capacity) throws SQLException {
+		if (statements.putIfAbsent(sql, statement) != null) {
+			statement.close();
+			return 0;
+		}
+		int evicted = 0;
+		final Iterator<PreparedStatement> iterator = statements.values().iterator();
+		while (statements.size() > capacity) {
+			final PreparedStatement eldest = iterator.next();
+			iterator.remove();
+			evicted++;
+			try {
+				eldest.close();
+			} catch (SQLException e) {
+				// 忽略错误
+			}
+		}
+		return evicted;
+	}
+
+	/**
+	 * 缓存的语句数量
+	 */
+	int size() {
+		return statements.size();
+	}
+
+	/**
+	 * 清除缓存，语句随连接关闭
+	 */
+	void clear() {
+		statements.clear();
+	}
+}
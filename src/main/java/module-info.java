@@ -4,7 +4,10 @@
  * Copyright © JOY-Links Company. All rights reserved.
  */
 module com.joyzl.database {
-	requires java.sql;
+	requires transitive java.sql;
+	requires java.management;
 
 	exports com.joyzl.database;
+
+	uses com.joyzl.database.Dialect;
 }
\ No newline at end of file
@@ -0,0 +1,740 @@
+package com.joyzl.database.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+
+import com.joyzl.database.ConnectionPool;
+import com.joyzl.database.PoolEntry;
+import com.joyzl.database.PoolOptions;
+
+/**
+ * 连接池竞争测试，对比 ArrayBlockingQueue 与 ConnectionPool 在多线程借还连接时的吞吐量
+ *
+ * @author ZhangXi
+ * @date 2026年10月14日
+ */
+class TestConnectionPool {
+
+	final static int THREADS = 200;
+	final static int CONNECTIONS = 8;
+	final static int ROUNDS = 2000;
+
+	/**
+	 * 模拟数据库连接，不访问数据库以便测试仅体现连接池开销
+	 */
+	static Connection connection() {
+		return connection(new AtomicInteger());
+	}
+
+	static Connection connection(AtomicInteger validations) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "isValid":
+					validations.incrementAndGet();
+					return true;
+				case "getAutoCommit":
+					return true;
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					return proxy == args[0];
+				case "toString":
+					return "Connection@" + Integer.toHexString(System.identityHashCode(proxy));
+			}
+			if (method.getReturnType() == boolean.class) {
+				return false;
+			}
+			if (method.getReturnType() == int.class) {
+				return 0;
+			}
+			return null;
+		});
+	}
+
+	interface Round {
+		void run() throws Exception;
+	}
+
+	static long contend(Round round) throws Exception {
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch end = new CountDownLatch(THREADS);
+		final AtomicLong errors = new AtomicLong();
+		for (int index = 0; index < THREADS; index++) {
+			final Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					for (int r = 0; r < ROUNDS; r++) {
+						round.run();
+					}
+				} catch (Exception e) {
+					errors.incrementAndGet();
+				} finally {
+					end.countDown();
+				}
+			});
+			thread.setDaemon(true);
+			thread.start();
+		}
+		final long time = System.nanoTime();
+		start.countDown();
+		assertTrue(end.await(5, TimeUnit.MINUTES));
+		assertEquals(0, errors.get());
+		return System.nanoTime() - time;
+	}
+
+	@Test
+	void testBorrowRequite() throws Exception {
+		final ConnectionPool pool = new ConnectionPool(2, TestConnectionPool::connection);
+		final PoolEntry entry1 = pool.borrow(0, TimeUnit.MILLISECONDS);
+		final PoolEntry entry2 = pool.borrow(0, TimeUnit.MILLISECONDS);
+		assertEquals(2, pool.size());
+
+		// 连接池已满，新建溢出连接
+		final PoolEntry entry3 = pool.borrow(0, TimeUnit.MILLISECONDS);
+		assertEquals(2, pool.size());
+		pool.requite(entry3);
+
+		// 当前线程归还的连接优先借出
+		pool.requite(entry2);
+		assertEquals(entry2, pool.borrow(0, TimeUnit.MILLISECONDS));
+
+		// 等待其它线程归还
+		final Thread thread = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+			}
+			pool.requite(entry1);
+		});
+		thread.start();
+		final PoolEntry entry = pool.borrow(10, TimeUnit.SECONDS);
+		assertNotNull(entry);
+		assertEquals(entry1, entry);
+		assertEquals(2, pool.size());
+
+		pool.close();
+	}
+
+	@Test
+	void testValidationWindow() throws Exception {
+		final AtomicInteger validations = new AtomicInteger();
+		final PoolOptions options = new PoolOptions(1);
+		options.setValidationWindow(200);
+		final ConnectionPool pool = new ConnectionPool(options, () -> connection(validations));
+
+		// 免验证窗口内借出不验证
+		pool.requite(pool.borrow(0, TimeUnit.MILLISECONDS));
+		pool.requite(pool.borrow(0, TimeUnit.MILLISECONDS));
+		assertEquals(0, validations.get());
+
+		// 超过免验证窗口借出时验证
+		Thread.sleep(300);
+		pool.requite(pool.borrow(0, TimeUnit.MILLISECONDS));
+		assertEquals(1, validations.get());
+		pool.close();
+	}
+
+	@Test
+	void testRequiteDuringValidation() throws Exception {
+		final AtomicBoolean slow = new AtomicBoolean();
+		final PoolOptions options = new PoolOptions(2);
+		options.setMinimumIdle(2);
+		options.setValidationWindow(0);
+		final ConnectionPool pool = new ConnectionPool(options, () -> {
+			final Connection connection = connection();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+				if (method.getName().equals("isValid") && slow.get()) {
+					Thread.sleep(300);
+				}
+				return method.invoke(connection, args);
+			});
+		});
+		assertTrue(pool.awaitMinimumIdle(10, TimeUnit.SECONDS));
+		final PoolEntry entry = pool.borrow();
+
+		// 其它线程借用时验证连接耗时较长
+		slow.set(true);
+		final CountDownLatch borrowed = new CountDownLatch(1);
+		final Thread thread = new Thread(() -> {
+			try {
+				pool.requite(pool.borrow());
+				borrowed.countDown();
+			} catch (SQLException e) {
+			}
+		});
+		thread.start();
+		Thread.sleep(100);
+
+		// 验证中的借用线程未阻塞等待，归还无须自旋等待交接
+		final long time = System.nanoTime();
+		pool.requite(entry);
+		assertTrue(System.nanoTime() - time < TimeUnit.MILLISECONDS.toNanos(100));
+		assertTrue(borrowed.await(5, TimeUnit.SECONDS));
+		pool.close();
+	}
+
+	@Test
+	void testBounded() throws Exception {
+		final PoolOptions options = new PoolOptions(1);
+		options.setBounded(true);
+		options.setBorrowTimeout(100);
+		final ConnectionPool pool = new ConnectionPool(options, TestConnectionPool::connection);
+
+		final PoolEntry entry = pool.borrow();
+		assertThrows(SQLTransientConnectionException.class, () -> pool.borrow());
+		assertEquals(1, pool.size());
+		assertEquals(1, pool.getWaitCount());
+		assertEquals(1, pool.getTimeoutCount());
+
+		pool.requite(entry);
+		assertEquals(entry, pool.borrow());
+		pool.close();
+	}
+
+	@Test
+	void testMinimumIdle() throws Exception {
+		final PoolOptions options = new PoolOptions(8);
+		options.setMinimumIdle(4);
+		final ConnectionPool pool = new ConnectionPool(options, () -> {
+			// 模拟建立连接的握手耗时
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200));
+			return connection();
+		});
+
+		// 并行预建，耗时接近单个连接的建立时间
+		final long time = System.currentTimeMillis();
+		assertTrue(pool.awaitMinimumIdle(10, TimeUnit.SECONDS));
+		assertTrue(System.currentTimeMillis() - time < 600);
+		assertEquals(4, pool.idle());
+		assertEquals(4, pool.size());
+		pool.close();
+	}
+
+	@Test
+	void testMaxLifetime() throws Exception {
+		final PoolOptions options = new PoolOptions(2);
+		options.setMaxLifetime(200);
+		options.setKeepaliveTime(0);
+		final ConnectionPool pool = new ConnectionPool(options, TestConnectionPool::connection);
+
+		// 空闲连接过期后由后台线程关闭
+		final PoolEntry entry1 = pool.borrow();
+		pool.requite(entry1);
+		assertEquals(1, pool.size());
+		Thread.sleep(400);
+		assertEquals(0, pool.size());
+
+		// 使用中的连接过期后归还时关闭
+		final PoolEntry entry2 = pool.borrow();
+		assertNotSame(entry1, entry2);
+		Thread.sleep(300);
+		pool.requite(entry2);
+		assertEquals(0, pool.size());
+		pool.close();
+	}
+
+	@Test
+	void testIdleTimeout() throws Exception {
+		final PoolOptions options = new PoolOptions(4);
+		options.setMinimumIdle(1);
+		options.setIdleTimeout(200);
+		options.setKeepaliveTime(0);
+		final ConnectionPool pool = new ConnectionPool(options, TestConnectionPool::connection);
+		assertTrue(pool.awaitMinimumIdle(10, TimeUnit.SECONDS));
+
+		final PoolEntry[] entries = new PoolEntry[4];
+		for (int index = 0; index < entries.length; index++) {
+			entries[index] = pool.borrow();
+		}
+		for (PoolEntry entry : entries) {
+			pool.requite(entry);
+		}
+		assertEquals(4, pool.size());
+
+		// 收缩至最小空闲连接数
+		Thread.sleep(600);
+		assertEquals(1, pool.size());
+		assertEquals(1, pool.idle());
+		pool.close();
+	}
+
+	@Test
+	void testKeepaliveIdleTimeout() throws Exception {
+		final AtomicInteger validations = new AtomicInteger();
+		final PoolOptions options = new PoolOptions(4);
+		options.setMinimumIdle(1);
+		options.setIdleTimeout(400);
+		options.setKeepaliveTime(50);
+		final ConnectionPool pool = new ConnectionPool(options, () -> connection(validations));
+		assertTrue(pool.awaitMinimumIdle(10, TimeUnit.SECONDS));
+
+		final PoolEntry[] entries = new PoolEntry[4];
+		for (int index = 0; index < entries.length; index++) {
+			entries[index] = pool.borrow();
+		}
+		for (PoolEntry entry : entries) {
+			pool.requite(entry);
+		}
+		assertEquals(4, pool.size());
+
+		// 保活验证不延长空闲时长，仍收缩至最小空闲连接数
+		Thread.sleep(1000);
+		assertTrue(validations.get() > 0);
+		assertEquals(1, pool.size());
+		assertEquals(1, pool.idle());
+		pool.close();
+	}
+
+	@Test
+	void testLIFO() throws Exception {
+		final ConnectionPool pool = new ConnectionPool(4, TestConnectionPool::connection);
+		final PoolEntry entry1 = pool.borrow();
+		final PoolEntry entry2 = pool.borrow();
+		final PoolEntry entry3 = pool.borrow();
+
+		// 其它线程依次归还，当前线程无最近归还的连接
+		final Thread thread = new Thread(() -> {
+			for (PoolEntry entry : new PoolEntry[] { entry2, entry3, entry1 }) {
+				pool.requite(entry);
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+			}
+		});
+		thread.start();
+		thread.join();
+
+		// 共享列表中最近归还的连接优先借出
+		assertSame(entry1, pool.borrow());
+		assertSame(entry3, pool.borrow());
+		assertSame(entry2, pool.borrow());
+		pool.close();
+	}
+
+	@Test
+	void testCircuitBreaker() throws Exception {
+		final AtomicBoolean down = new AtomicBoolean(true);
+		final AtomicInteger attempts = new AtomicInteger();
+		final ConnectionPool pool = new ConnectionPool(2, () -> {
+			attempts.incrementAndGet();
+			if (down.get()) {
+				throw new SQLException("Connection refused");
+			}
+			return connection();
+		});
+
+		// 连续失败后熔断，此后借用立即失败且不再尝试连接；新建连接失败时借用线程不等待至超时
+		final long time = System.nanoTime();
+		for (int index = 0; index < 3; index++) {
+			assertThrows(SQLException.class, () -> pool.borrow());
+		}
+		assertTrue(System.nanoTime() - time < TimeUnit.SECONDS.toNanos(5));
+		assertFalse(pool.isHealthy());
+		final int count = attempts.get();
+		final SQLException e = assertThrows(SQLTransientConnectionException.class, () -> pool.borrow());
+		assertEquals("Connection refused", e.getCause().getMessage());
+		assertTrue(attempts.get() <= count + 1);
+
+		// 后台探测恢复后解除熔断
+		down.set(false);
+		assertTrue(pool.awaitHealthy(10, TimeUnit.SECONDS));
+		assertTrue(pool.isHealthy());
+		pool.requite(pool.borrow());
+		pool.close();
+	}
+
+	@Test
+	void testCircuitBreakerIdle() throws Exception {
+		final AtomicBoolean down = new AtomicBoolean(false);
+		final ConnectionPool pool = new ConnectionPool(1, () -> {
+			if (down.get()) {
+				throw new SQLException("Too many connections");
+			}
+			return connection();
+		});
+		final PoolEntry entry = pool.borrow();
+
+		// 新建溢出连接连续失败后熔断
+		down.set(true);
+		for (int index = 0; index < 3; index++) {
+			assertThrows(SQLException.class, () -> pool.borrow(0, TimeUnit.MILLISECONDS));
+		}
+		assertFalse(pool.isHealthy());
+		assertThrows(SQLTransientConnectionException.class, () -> pool.borrow(0, TimeUnit.MILLISECONDS));
+
+		// 熔断期间仍可借用空闲连接
+		pool.requite(entry);
+		final PoolEntry idle = pool.borrow(0, TimeUnit.MILLISECONDS);
+		assertSame(entry, idle);
+		assertFalse(pool.isHealthy());
+		pool.requite(idle);
+		pool.close();
+	}
+
+	@Test
+	void testCreationStorm() throws Exception {
+		final PoolOptions options = new PoolOptions(CONNECTIONS);
+		options.setCreationConcurrency(2);
+		options.setCreationRate(100);
+		final AtomicInteger handshakes = new AtomicInteger();
+		final AtomicInteger concurrent = new AtomicInteger();
+		final AtomicInteger peak = new AtomicInteger();
+		final ConnectionPool pool = new ConnectionPool(options, () -> {
+			// 模拟数据库重启后的握手，同时握手越多越慢
+			final int value = concurrent.incrementAndGet();
+			peak.accumulateAndGet(value, Math::max);
+			handshakes.incrementAndGet();
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10L * value));
+			concurrent.decrementAndGet();
+			return connection();
+		});
+
+		// 大量线程同时借用，由创建线程限制并行数和速率新建，借用线程不直接连接数据库
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch end = new CountDownLatch(THREADS);
+		final AtomicInteger errors = new AtomicInteger();
+		for (int index = 0; index < THREADS; index++) {
+			final Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					final PoolEntry entry = pool.borrow();
+					LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+					pool.requite(entry);
+				} catch (Exception e) {
+					errors.incrementAndGet();
+				} finally {
+					end.countDown();
+				}
+			});
+			thread.setDaemon(true);
+			thread.start();
+		}
+		final long time = System.currentTimeMillis();
+		start.countDown();
+		assertTrue(end.await(1, TimeUnit.MINUTES));
+		System.out.printf("CreationStorm: %d threads, %d handshakes, peak %d, %d ms%n", THREADS, handshakes.get(), peak.get(), System.currentTimeMillis() - time);
+		assertEquals(0, errors.get());
+		assertTrue(peak.get() <= 2);
+		assertTrue(handshakes.get() <= CONNECTIONS);
+		assertTrue(pool.size() <= CONNECTIONS);
+		pool.close();
+	}
+
+	@Test
+	void testLeakDetection() throws Exception {
+		final PoolOptions options = new PoolOptions(2);
+		options.setLeakDetectionThreshold(100);
+		options.setLeakTraceRate(0);
+		final ConnectionPool pool = new ConnectionPool(options, TestConnectionPool::connection);
+
+		// 及时归还的连接不报告
+		pool.requite(pool.borrow());
+		Thread.sleep(200);
+		assertEquals(0, pool.getLeakCount());
+
+		// 借出超过阈值报告一次
+		final PoolEntry entry = pool.borrow();
+		Thread.sleep(300);
+		assertEquals(1, pool.getLeakCount());
+		pool.requite(entry);
+		pool.close();
+	}
+
+	@Test
+	void testLeakDetectionReconfigure() throws Exception {
+		final PoolOptions options = new PoolOptions(2);
+		final ConnectionPool pool = new ConnectionPool(options, TestConnectionPool::connection);
+		final PoolEntry entry = pool.borrow();
+
+		// 运行时启用泄漏检测，已借出的连接按实际借出时长判断
+		options.setLeakDetectionThreshold(500);
+		pool.reconfigure(options);
+		Thread.sleep(100);
+		assertEquals(0, pool.getLeakCount());
+		Thread.sleep(700);
+		assertEquals(1, pool.getLeakCount());
+		pool.requite(entry);
+		pool.close();
+	}
+
+	@Test
+	void testSizing() throws Exception {
+		final PoolOptions options = new PoolOptions(8);
+		options.setSizing(PoolOptions.ADAPTIVE);
+		options.setSizingInterval(20);
+		final ConnectionPool pool = new ConnectionPool(options, TestConnectionPool::connection);
+		assertEquals(8, pool.getCapacity());
+
+		// 空闲时逐步缩小
+		long deadline = System.currentTimeMillis() + 5000;
+		while (pool.getCapacity() > 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertTrue(pool.getCapacity() <= 2);
+
+		// 持续借用时扩大
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final Thread[] threads = new Thread[6];
+		for (int index = 0; index < threads.length; index++) {
+			threads[index] = new Thread(() -> {
+				while (running.get()) {
+					try {
+						final PoolEntry entry = pool.borrow(1, TimeUnit.SECONDS);
+						Thread.sleep(5);
+						pool.requite(entry);
+					} catch (Exception e) {
+					}
+				}
+			});
+			threads[index].start();
+		}
+		deadline = System.currentTimeMillis() + 5000;
+		while (pool.getCapacity() < 6 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		running.set(false);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(pool.getCapacity() >= 6);
+		assertTrue(pool.size() <= 8);
+		pool.close();
+
+		// 仅建议容量，不调节
+		options.setSizing(PoolOptions.RECOMMEND);
+		final ConnectionPool recommend = new ConnectionPool(options, TestConnectionPool::connection);
+		deadline = System.currentTimeMillis() + 5000;
+		while (recommend.getRecommendedCapacity() == 8 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertTrue(recommend.getRecommendedCapacity() < 8);
+		assertEquals(8, recommend.getCapacity());
+		recommend.close();
+		assertThrows(IllegalArgumentException.class, () -> options.setSizing(3));
+	}
+
+	@Test
+	void testReconfigure() throws Exception {
+		final PoolOptions options = new PoolOptions(4);
+		options.setMinimumIdle(4);
+		options.setBounded(true);
+		options.setBorrowTimeout(5000);
+		final ConnectionPool pool = new ConnectionPool(options, TestConnectionPool::connection);
+		assertTrue(pool.awaitMinimumIdle(5, TimeUnit.SECONDS));
+		final PoolEntry entry1 = pool.borrow();
+		final PoolEntry entry2 = pool.borrow();
+		final PoolEntry entry3 = pool.borrow();
+
+		// 缩小：空闲连接立即关闭，使用中的连接不受影响，归还时关闭
+		options.setMaximum(1);
+		options.setMinimumIdle(0);
+		pool.reconfigure(options);
+		assertEquals(1, pool.getMaximum());
+		assertEquals(3, pool.size());
+		entry1.setAutoCommit(false);
+		pool.requite(entry1);
+		pool.requite(entry2);
+		assertEquals(1, pool.size());
+
+		// 扩大：等待线程立即获得新建的连接
+		final ArrayBlockingQueue<PoolEntry> borrowed = new ArrayBlockingQueue<>(1);
+		final Thread thread = new Thread(() -> {
+			try {
+				borrowed.add(pool.borrow());
+			} catch (SQLException e) {
+			}
+		});
+		thread.start();
+		Thread.sleep(100);
+		assertTrue(borrowed.isEmpty());
+		options.setMaximum(3);
+		pool.reconfigure(options);
+		final PoolEntry entry4 = borrowed.poll(1, TimeUnit.SECONDS);
+		assertNotNull(entry4);
+		assertEquals(2, pool.size());
+		pool.requite(entry3);
+		pool.requite(entry4);
+
+		options.setLimited(true);
+		assertThrows(IllegalArgumentException.class, () -> pool.reconfigure(options));
+		pool.close();
+	}
+
+	@Test
+	void testSessionState() throws Exception {
+		// 记录访问数据库的会话状态设置
+		final AtomicInteger calls = new AtomicInteger();
+		final ConnectionPool pool = new ConnectionPool(1, () -> {
+			final Connection connection = connection();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+				switch (method.getName()) {
+					case "setAutoCommit":
+					case "setReadOnly":
+					case "setTransactionIsolation":
+					case "getTransactionIsolation":
+					case "rollback":
+						calls.incrementAndGet();
+						if (method.getName().equals("getTransactionIsolation")) {
+							return Connection.TRANSACTION_REPEATABLE_READ;
+						}
+						return null;
+				}
+				return method.invoke(connection, args);
+			});
+		});
+
+		// 非事务语句：状态未变化，不访问数据库
+		PoolEntry entry = pool.borrow();
+		entry.setAutoCommit(true);
+		assertTrue(entry.getAutoCommit());
+		pool.requite(entry);
+		assertEquals(0, calls.get());
+		assertEquals(1, pool.getSessionSkipCount());
+
+		// 事务：关闭和恢复自动提交各一次
+		entry = pool.borrow();
+		entry.setAutoCommit(false);
+		entry.setAutoCommit(true);
+		pool.requite(entry);
+		assertEquals(2, calls.get());
+
+		// 隔离级别首次修改时读取默认值，归还时仅恢复被修改的状态
+		entry = pool.borrow();
+		entry.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+		assertEquals(3, calls.get());
+		entry.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		pool.requite(entry);
+		assertEquals(5, calls.get());
+		entry = pool.borrow();
+		entry.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+		pool.requite(entry);
+		assertEquals(5, calls.get());
+		assertEquals(3, pool.getSessionSkipCount());
+		pool.close();
+	}
+
+	@Test
+	void testSessionDefaults() throws Exception {
+		// 外部数据源的连接默认禁用自动提交
+		final AtomicBoolean autoCommit = new AtomicBoolean(false);
+		final AtomicInteger rollbacks = new AtomicInteger();
+		final ConnectionPool pool = new ConnectionPool(1, () -> {
+			final Connection connection = connection();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+				switch (method.getName()) {
+					case "getAutoCommit":
+						return autoCommit.get();
+					case "setAutoCommit":
+						autoCommit.set((Boolean) args[0]);
+						return null;
+					case "rollback":
+						rollbacks.incrementAndGet();
+						return null;
+				}
+				return method.invoke(connection, args);
+			});
+		});
+
+		PoolEntry entry = pool.borrow();
+		assertFalse(entry.getAutoCommit());
+		// 非事务语句启用自动提交须访问数据库，归还时恢复默认状态
+		entry.setAutoCommit(true);
+		assertTrue(autoCommit.get());
+		pool.requite(entry);
+		assertFalse(autoCommit.get());
+		assertEquals(0, rollbacks.get());
+
+		// 默认状态下未提交的事务在归还时回滚
+		entry = pool.borrow();
+		entry.setAutoCommit(false);
+		pool.requite(entry);
+		assertFalse(autoCommit.get());
+		assertEquals(1, rollbacks.get());
+		pool.close();
+	}
+
+	@Test
+	void testContention() throws Exception {
+		// 双方验证设置相同：每次借出均执行 isValid / 均不验证
+		contention(true);
+		contention(false);
+	}
+
+	void contention(boolean validate) throws Exception {
+		final long operations = (long) THREADS * ROUNDS;
+		// 借出中的连接，同一连接同时借给多个线程视为重复
+		final Set<Connection> using = ConcurrentHashMap.newKeySet();
+		final AtomicLong duplicates = new AtomicLong();
+		final AtomicLong borrows = new AtomicLong();
+
+		// 原 ArrayBlockingQueue 方式，借还均经过队列锁
+		final AtomicInteger queueValidations = new AtomicInteger();
+		final ArrayBlockingQueue<Connection> queue = new ArrayBlockingQueue<>(CONNECTIONS);
+		for (int index = 0; index < CONNECTIONS; index++) {
+			queue.offer(connection(queueValidations));
+		}
+		final long queueTime = contend(() -> {
+			final Connection connection = queue.poll(1, TimeUnit.MINUTES);
+			if (validate) {
+				connection.isValid(1);
+			}
+			if (!using.add(connection)) {
+				duplicates.incrementAndGet();
+			}
+			borrows.incrementAndGet();
+			using.remove(connection);
+			queue.offer(connection);
+		});
+		assertEquals(operations, borrows.get());
+		assertEquals(0, duplicates.get());
+		assertEquals(CONNECTIONS, queue.size());
+		assertEquals(validate ? operations : 0, queueValidations.get());
+
+		// ConnectionPool，免验证窗口为零时每次借出均验证
+		final AtomicInteger poolValidations = new AtomicInteger();
+		final PoolOptions options = new PoolOptions(CONNECTIONS);
+		options.setValidationWindow(validate ? 0 : TimeUnit.MINUTES.toMillis(10));
+		final ConnectionPool pool = new ConnectionPool(options, () -> connection(poolValidations));
+		borrows.set(0);
+		final long poolTime = contend(() -> {
+			final PoolEntry entry = pool.borrow(1, TimeUnit.MINUTES);
+			if (!using.add(entry.getConnection())) {
+				duplicates.incrementAndGet();
+			}
+			borrows.incrementAndGet();
+			using.remove(entry.getConnection());
+			pool.requite(entry);
+		});
+		assertEquals(operations, borrows.get());
+		assertEquals(0, duplicates.get());
+		assertEquals(operations, pool.getBorrowCount());
+		assertEquals(0, pool.getActive());
+		assertTrue(pool.size() <= CONNECTIONS);
+		assertEquals(pool.size(), pool.getIdle());
+		assertEquals(validate ? operations : 0, poolValidations.get());
+		pool.close();
+
+		System.out.printf("%s, %d cpus%n", validate ? "isValid per borrow" : "no validation", Runtime.getRuntime().availableProcessors());
+		System.out.printf("ArrayBlockingQueue: %d ops, %d ms, %d ops/ms%n", operations, queueTime / 1000000, operations * 1000000 / queueTime);
+		System.out.printf("ConnectionPool:     %d ops, %d ms, %d ops/ms%n", operations, poolTime / 1000000, operations * 1000000 / poolTime);
+	}
+}
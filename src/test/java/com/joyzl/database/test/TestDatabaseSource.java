@@ -0,0 +1,558 @@
+package com.joyzl.database.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.joyzl.database.ConnectionPool;
+import com.joyzl.database.ConnectionPoolMXBean;
+import com.joyzl.database.Database;
+import com.joyzl.database.DatabaseSource;
+import com.joyzl.database.PoolEntry;
+import com.joyzl.database.PoolOptions;
+import com.joyzl.database.Query;
+import com.joyzl.database.Statement;
+
+/**
+ * 多数据源及读写分离测试，使用多个独立的嵌入式数据库H2
+ *
+ * @author ZhangXi
+ * @date 2026年10月14日
+ */
+class TestDatabaseSource {
+
+	static DatabaseSource users;
+	static DatabaseSource energies;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		users = Database.initialize("users", Database.H2, "jdbc:h2:mem:users;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		energies = Database.initialize("energies", Database.H2, "jdbc:h2:mem:energies;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() throws Exception {
+		users.close();
+		energies.close();
+	}
+
+	@Test
+	void testSources() {
+		assertSame(users, Database.source("users"));
+		assertSame(energies, Database.source("energies"));
+		assertNotSame(users.getPool(), energies.getPool());
+
+		try (Statement statement = users.instance("CREATE TABLE `items` (`id` INT PRIMARY KEY)")) {
+			statement.execute();
+		}
+		try (Statement statement = energies.instance("CREATE TABLE `items` (`id` INT PRIMARY KEY)")) {
+			statement.execute();
+		}
+		try (Statement statement = users.instance("INSERT INTO `items` (`id`) VALUES (?id)")) {
+			statement.setValue("id", 1);
+			assertTrue(statement.execute());
+		}
+
+		// 数据互不影响
+		try (Statement statement = users.instance("SELECT COUNT(*) AS `c` FROM `items`")) {
+			assertTrue(statement.execute());
+			assertTrue(statement.nextRecord());
+			assertEquals(1, statement.getValue("c", 0));
+		}
+		try (Statement statement = energies.instance("SELECT COUNT(*) AS `c` FROM `items`")) {
+			assertTrue(statement.execute());
+			assertTrue(statement.nextRecord());
+			assertEquals(0, statement.getValue("c", 0));
+		}
+	}
+
+	static int count(Statement statement) {
+		assertTrue(statement.execute());
+		assertTrue(statement.nextRecord());
+		return statement.getValue("c", 0);
+	}
+
+	@Test
+	void testReplicas() {
+		final DatabaseSource source = Database.initialize("primary", Database.H2, "jdbc:h2:mem:primary;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		final ConnectionPool replica1 = source.addReplica("jdbc:h2:mem:replica1;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		final ConnectionPool replica2 = source.addReplica("jdbc:h2:mem:replica2;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		final String TABLE = "CREATE TABLE `items` (`id` INT PRIMARY KEY)";
+		try (Statement statement = source.instance(TABLE)) {
+			statement.execute();
+		}
+		// 模拟已同步的从库
+		for (ConnectionPool replica : source.getReplicas()) {
+			try {
+				final PoolEntry entry = replica.borrow();
+				entry.getConnection().createStatement().execute(TABLE);
+				replica.requite(entry);
+			} catch (SQLException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		assertEquals(1, replica1.getBorrowCount());
+		assertEquals(1, replica2.getBorrowCount());
+
+		// 写入在主库执行
+		try (Statement statement = source.instance("INSERT INTO `items` (`id`) VALUES (?id)")) {
+			statement.setValue("id", 1);
+			assertTrue(statement.execute());
+		}
+		assertEquals(2, replica1.getBorrowCount() + replica2.getBorrowCount());
+
+		// 只读查询轮询从库
+		final String SQL = "SELECT COUNT(*) AS `c` FROM `items`";
+		for (int index = 0; index < 4; index++) {
+			try (Statement statement = source.instance(SQL)) {
+				assertEquals(0, count(statement));
+			}
+		}
+		assertEquals(3, replica1.getBorrowCount());
+		assertEquals(3, replica2.getBorrowCount());
+
+		// 事务中的查询和锁定读在主库执行
+		try (Statement statement = source.instance(SQL, true)) {
+			assertEquals(1, count(statement));
+		}
+		try (Statement statement = source.instance("SELECT `id` FROM `items` WHERE `id`=?id FOR UPDATE")) {
+			statement.setValue("id", 1);
+			assertTrue(statement.execute());
+			assertTrue(statement.nextRecord());
+		}
+		assertEquals(6, replica1.getBorrowCount() + replica2.getBorrowCount());
+
+		// 最少借出连接
+		source.setBalance(DatabaseSource.LEAST_OUTSTANDING);
+		try (Statement statement1 = source.instance(SQL);
+			Statement statement2 = source.instance(SQL)) {
+			assertEquals(1, replica1.getActive());
+			assertEquals(1, replica2.getActive());
+			assertEquals(0, count(statement1));
+			assertEquals(0, count(statement2));
+		}
+		source.close();
+	}
+
+	static void execute(ConnectionPool pool, String sql) throws SQLException {
+		final PoolEntry entry = pool.borrow();
+		entry.getConnection().createStatement().execute(sql);
+		pool.requite(entry);
+	}
+
+	@Test
+	void testReplicaLag() throws Exception {
+		final String URL = "jdbc:h2:mem:lag;MODE=MySQL;DB_CLOSE_DELAY=-1";
+		final String HEARTBEAT = "CREATE TABLE `heartbeat` (`id` INT PRIMARY KEY,`ts` BIGINT)";
+		final DatabaseSource source = Database.initialize("lag", Database.H2, URL, "sa", "", new PoolOptions(2));
+		execute(source.getPool(), HEARTBEAT);
+		execute(source.getPool(), "CREATE TABLE `items` (`id` INT PRIMARY KEY)");
+		// 连接主库的数据库模拟实时同步的从库
+		final ConnectionPool synced = source.addReplica(URL, "sa", "", new PoolOptions(2));
+		// 心跳停止同步的从库，无 items 表，被选中时查询将失败
+		final ConnectionPool stale = source.addReplica("jdbc:h2:mem:stale;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		execute(stale, HEARTBEAT);
+		execute(stale, "INSERT INTO `heartbeat` (`id`,`ts`) VALUES (1,0)");
+
+		// 测得的延迟至少为监测间隔
+		assertThrows(IllegalArgumentException.class, () -> source.setHeartbeat("heartbeat", 1000, 1000));
+		// 表名拼接到SQL语句中，须为标识符
+		assertThrows(IllegalArgumentException.class, () -> source.setHeartbeat("heartbeat; DROP TABLE users", 50, 1000));
+		assertThrows(IllegalArgumentException.class, () -> source.setHeartbeat("`heartbeat`", 50, 1000));
+		source.setHeartbeat("heartbeat", 50, 1000);
+		final long time = System.currentTimeMillis();
+		while (stale.getLag() <= 1000 && System.currentTimeMillis() - time < 5000) {
+			Thread.sleep(10);
+		}
+		assertTrue(stale.getLag() > 1000);
+		// 同步的从库在下次写入之前读取，延迟约为监测间隔
+		assertTrue(synced.getLag() > 0);
+		assertTrue(synced.getLag() <= 1000);
+		assertEquals(1000, source.getMaximumLag());
+
+		// 延迟超过阈值的从库不参与查询
+		for (int index = 0; index < 4; index++) {
+			try (Statement statement = source.instance("SELECT COUNT(*) AS `c` FROM `items`")) {
+				assertEquals(0, count(statement));
+			}
+		}
+		source.close();
+	}
+
+	@Test
+	void testConsistencyWindow() throws Exception {
+		final DatabaseSource source = Database.initialize("consistency", Database.H2, "jdbc:h2:mem:consistency;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		final ConnectionPool replica = source.addReplica("jdbc:h2:mem:consistency_replica;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		execute(source.getPool(), "CREATE TABLE `items` (`id` INT PRIMARY KEY)");
+		// 模拟尚未同步写入的从库
+		execute(replica, "CREATE TABLE `items` (`id` INT PRIMARY KEY)");
+		source.setConsistencyWindow(300);
+
+		final String SQL = "SELECT COUNT(*) AS `c` FROM `items`";
+		try (Statement statement = source.instance(SQL)) {
+			assertEquals(0, count(statement));
+		}
+		try (Statement statement = source.instance("INSERT INTO `items` (`id`) VALUES (?id)")) {
+			statement.setValue("id", 1);
+			assertTrue(statement.execute());
+		}
+
+		// 写入线程在窗口期内读取主库
+		try (Statement statement = source.instance(SQL)) {
+			assertEquals(1, count(statement));
+		}
+		// 其它线程不受影响
+		final AtomicInteger other = new AtomicInteger(-1);
+		final Thread thread = new Thread(() -> {
+			try (Statement statement = source.instance(SQL)) {
+				other.set(count(statement));
+			}
+		});
+		thread.start();
+		thread.join();
+		assertEquals(0, other.get());
+
+		// 窗口期后恢复读取从库
+		Thread.sleep(400);
+		try (Statement statement = source.instance(SQL)) {
+			assertEquals(0, count(statement));
+		}
+		source.close();
+	}
+
+	@Test
+	void testMXBean() throws Exception {
+		final DatabaseSource source = Database.initialize("metrics", Database.H2, "jdbc:h2:mem:metrics;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName("com.joyzl.database:type=ConnectionPool,name=\"metrics\"");
+		assertTrue(server.isRegistered(name));
+
+		final ConnectionPoolMXBean bean = JMX.newMXBeanProxy(server, name, ConnectionPoolMXBean.class);
+		for (int index = 0; index < 10; index++) {
+			try (Statement statement = source.instance("SELECT 1 AS `c`")) {
+				assertEquals(1, count(statement));
+			}
+		}
+		assertEquals(2, bean.getMaximum());
+		assertEquals(1, bean.getTotal());
+		assertEquals(1, bean.getIdle());
+		assertEquals(0, bean.getActive());
+		assertEquals(10, bean.getBorrowCount());
+		assertEquals(1, bean.getCreationCount());
+		assertEquals(0, bean.getCreationFailureCount());
+		assertTrue(bean.isHealthy());
+		assertTrue(bean.getBorrowTime50() <= bean.getBorrowTime99());
+		long borrows = 0;
+		for (long value : bean.getBorrowTimeHistogram()) {
+			borrows += value;
+		}
+		assertEquals(10, borrows);
+
+		// 关闭后注销
+		source.close();
+		assertFalse(server.isRegistered(name));
+	}
+
+	@Test
+	void testStatementCache() throws Exception {
+		final PoolOptions options = new PoolOptions(1);
+		options.setStatementCacheSize(2);
+		final DatabaseSource source = Database.initialize("statements", Database.H2, "jdbc:h2:mem:statements;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", options);
+		final ConnectionPool pool = source.getPool();
+		try (Statement statement = source.instance("CREATE TABLE `items` (`id` INT PRIMARY KEY)")) {
+			statement.execute();
+		}
+
+		// 相同SQL再次执行时重用缓存的语句，参数已清除
+		for (int index = 1; index <= 3; index++) {
+			try (Statement statement = source.instance("INSERT INTO `items` (`id`) VALUES (?id)")) {
+				statement.setValue("id", index);
+				assertTrue(statement.execute());
+			}
+		}
+		assertEquals(2, pool.getStatementCacheHitCount());
+		for (int index = 0; index < 2; index++) {
+			try (Statement statement = source.instance("CALL ABS(?value)")) {
+				statement.setValue("value", -index);
+				assertTrue(statement.execute());
+				assertTrue(statement.nextRecord());
+			}
+		}
+		assertEquals(3, pool.getStatementCacheHitCount());
+
+		// 同一连接上的相同语句互不共用
+		try (Statement statement1 = source.instance("SELECT COUNT(*) AS `c` FROM `items` WHERE `id`>?id", true)) {
+			try (Statement statement2 = source.instance("SELECT COUNT(*) AS `c` FROM `items` WHERE `id`>?id", statement1)) {
+				statement1.setValue("id", 0);
+				statement2.setValue("id", 2);
+				assertEquals(3, count(statement1));
+				assertEquals(1, count(statement2));
+			}
+		}
+
+		// 超过缓存数量时淘汰最久未使用的语句
+		assertEquals(3, pool.getStatementCacheHitCount());
+		assertEquals(5, pool.getStatementCacheMissCount());
+		assertEquals(2, pool.getStatementCacheEvictionCount());
+		final PoolEntry entry = pool.borrow();
+		assertEquals(2, entry.getCachedStatements());
+		pool.requite(entry);
+		source.close();
+	}
+
+	@Test
+	void testQuery() throws Exception {
+		final PoolOptions options = new PoolOptions(4);
+		options.setBounded(true);
+		options.setStatementCacheSize(8);
+		final DatabaseSource source = Database.initialize("query", Database.H2, "jdbc:h2:mem:query;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", options);
+		final Query insert = Query.of(source, "INSERT INTO `items` (`id`,`name`) VALUES (?id,?name)");
+		final Query find = Query.of(source, "SELECT `name` FROM `items` WHERE `id`=?id");
+		final Query list = Query.of(source, "SELECT `id` FROM `items` WHERE `id`<?id ORDER BY `id`");
+		try (Statement statement = source.instance("CREATE TABLE `items` (`id` INT PRIMARY KEY,`name` VARCHAR(32))")) {
+			statement.execute();
+		}
+
+		// 多个线程同时执行相同的查询对象
+		final AtomicInteger errors = new AtomicInteger();
+		final Thread[] threads = new Thread[8];
+		for (int index = 0; index < threads.length; index++) {
+			final int base = index * 100;
+			threads[index] = new Thread(() -> {
+				try {
+					for (int id = base; id < base + 100; id++) {
+						final int value = id;
+						assertEquals(1, insert.update(statement -> {
+							statement.setValue("id", value);
+							statement.setValue("name", "名称" + value);
+						}));
+						assertEquals("名称" + value, find.first(statement -> statement.setValue("id", value), statement -> statement.getValue("name", "")));
+					}
+				} catch (Throwable e) {
+					errors.incrementAndGet();
+				}
+			});
+			threads[index].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(0, errors.get());
+		assertEquals(List.of(0, 1, 2), list.list(statement -> statement.setValue("id", 3), statement -> statement.getValue("id", 0)));
+		assertNull(find.first(statement -> statement.setValue("id", -1), statement -> statement.getValue("name", "")));
+
+		// 在事务中关联执行
+		try (Statement statement1 = source.instance("DELETE FROM `items` WHERE `id`=?id", true)) {
+			statement1.setValue("id", 0);
+			assertTrue(statement1.execute());
+			try (Statement statement2 = find.instance(statement1)) {
+				statement2.setValue("id", 0);
+				assertTrue(statement2.execute());
+				assertFalse(statement2.nextRecord());
+			}
+		}
+
+		// 每次执行不再预编译，仅首次使用连接时未命中
+		assertTrue(source.getPool().getStatementCacheHitCount() > 1500);
+		source.close();
+	}
+
+	@Test
+	void testSlots() {
+		final DatabaseSource source = Database.initialize("slots", Database.H2, "jdbc:h2:mem:slots;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		try (Statement statement = source.instance("CREATE TABLE `items` (`id` INT PRIMARY KEY,`code` INT,`name` VARCHAR(32))")) {
+			statement.execute();
+		}
+
+		// 循环之前获取槽位，重复的参数一次设置所有位置
+		final Query insert = Query.of(source, "INSERT INTO `items` (`id`,`code`,`name`) VALUES (?id,?id,?name)");
+		final int ID = insert.slot("id");
+		final int NAME = insert.slot("name");
+		try (Statement statement = insert.instance(true)) {
+			for (int index = 0; index < 1000; index++) {
+				statement.setValue(ID, index);
+				statement.setValue(NAME, "名称" + index);
+				statement.batch();
+			}
+			assertTrue(statement.execute());
+			assertEquals(1000, statement.getUpdatedCount());
+		}
+		try (Statement statement = source.instance("SELECT COUNT(*) AS `c` FROM `items` WHERE `id`=`code` AND `name` IS NOT NULL")) {
+			assertEquals(1000, count(statement));
+		}
+		source.close();
+	}
+
+	@Test
+	void testColumns() throws Exception {
+		final int ROWS = 10000;
+		final DatabaseSource source = Database.initialize("columns", Database.H2, "jdbc:h2:mem:columns;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		try (Statement statement = source.instance("CREATE TABLE `items` (`id` INT PRIMARY KEY,`amount` BIGINT,`price` DOUBLE,`enable` BOOLEAN)")) {
+			statement.execute();
+		}
+		try (Statement statement = source.instance("INSERT INTO `items` (`id`,`amount`,`price`,`enable`) VALUES (?id,?amount,?price,?enable)", true)) {
+			final int ID = statement.slot("id"), AMOUNT = statement.slot("amount"), PRICE = statement.slot("price"), ENABLE = statement.slot("enable");
+			for (int index = 0; index < ROWS; index++) {
+				statement.setValue(ID, index);
+				statement.setValue(AMOUNT, index % 10 == 0 ? null : Long.valueOf(index * 1000L));
+				statement.setValue(PRICE, index / 100.0);
+				statement.setValue(ENABLE, index % 2 == 0);
+				statement.batch();
+			}
+			statement.execute();
+		}
+
+		// 按字段序号读取与按名称读取相同，空值替换为默认值
+		final String SQL = "SELECT `id`,`amount`,`price`,`enable` FROM `items` ORDER BY `id`";
+		try (Statement statement = source.instance(SQL)) {
+			assertTrue(statement.execute());
+			final int ID = statement.column("id"), AMOUNT = statement.column("amount");
+			assertEquals(1, ID);
+			while (statement.nextRecord()) {
+				assertEquals(statement.getValue("id", 0), statement.getValue(ID, 0));
+				assertEquals(statement.getValue("amount", -1L), statement.getValue(AMOUNT, -1L));
+			}
+		}
+
+		// 对比每条记录的内存分配：驱动直接按序号读取、按字段序号读取、按名称读取
+		final Method allocated;
+		try {
+			allocated = Class.forName("com.sun.management.ThreadMXBean").getMethod("getCurrentThreadAllocatedBytes");
+		} catch (ReflectiveOperationException e) {
+			source.close();
+			Assumptions.abort("不支持线程内存分配统计");
+			return;
+		}
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long raw = 0, column = 0, name = 0, time;
+		for (int round = 0; round < 5; round++) {
+			final PoolEntry entry = source.getPool().borrow();
+			time = (long) allocated.invoke(threads);
+			try (java.sql.Statement statement = entry.getConnection().createStatement(); ResultSet result = statement.executeQuery(SQL)) {
+				long sum = 0;
+				while (result.next()) {
+					sum += result.getInt(1) + result.getLong(2) + (long) result.getDouble(3) + (result.getBoolean(4) ? 1 : 0);
+				}
+				assertTrue(sum > 0);
+			}
+			raw = (long) allocated.invoke(threads) - time;
+			source.getPool().requite(entry);
+
+			time = (long) allocated.invoke(threads);
+			try (Statement statement = source.instance(SQL)) {
+				statement.execute();
+				final int ID = statement.column("id"), AMOUNT = statement.column("amount"), PRICE = statement.column("price"), ENABLE = statement.column("enable");
+				long sum = 0;
+				while (statement.nextRecord()) {
+					sum += statement.getValue(ID, 0) + statement.getValue(AMOUNT, 0L) + (long) statement.getValue(PRICE, 0.0) + (statement.getValue(ENABLE, false) ? 1 : 0);
+				}
+				assertTrue(sum > 0);
+			}
+			column = (long) allocated.invoke(threads) - time;
+
+			time = (long) allocated.invoke(threads);
+			try (Statement statement = source.instance(SQL)) {
+				statement.execute();
+				long sum = 0;
+				while (statement.nextRecord()) {
+					sum += statement.getValue("id", 0) + statement.getValue("amount", 0L) + (long) statement.getValue("price", 0.0) + (statement.getValue("enable", false) ? 1 : 0);
+				}
+				assertTrue(sum > 0);
+			}
+			name = (long) allocated.invoke(threads) - time;
+		}
+		System.out.printf("Read %d rows: driver %.1f B/row, column %.1f B/row, name %.1f B/row%n", ROWS, (double) raw / ROWS, (double) column / ROWS, (double) name / ROWS);
+		// 按字段序号读取基本类型不增加驱动之外的分配
+		assertTrue(column - raw < ROWS);
+		source.close();
+	}
+
+	@Test
+	void testDataSource() throws Exception {
+		// 厂商 ConnectionPoolDataSource 创建连接，反射创建以免模块依赖 java.naming
+		final Class<?> type = Class.forName("org.h2.jdbcx.JdbcDataSource");
+		final ConnectionPoolDataSource h2 = (ConnectionPoolDataSource) type.getConstructor().newInstance();
+		type.getMethod("setURL", String.class).invoke(h2, "jdbc:h2:mem:external;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		type.getMethod("setUser", String.class).invoke(h2, "sa");
+		final DatabaseSource source = Database.initialize("external", Database.H2, h2, new PoolOptions(2));
+		try (Statement statement = source.instance("CREATE TABLE `items` (`id` INT PRIMARY KEY)")) {
+			statement.execute();
+		}
+		try (Statement statement = source.instance("INSERT INTO `items` (`id`) VALUES (?id)")) {
+			statement.setValue("id", 1);
+			assertTrue(statement.execute());
+		}
+
+		// 仅实现 DataSource 的外部数据源
+		final DataSource plain = (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] { DataSource.class }, (proxy, method, args) -> method.invoke(h2, args));
+		final DatabaseSource other = Database.initialize("plain", Database.H2, plain, new PoolOptions(2));
+		try (Statement statement = other.instance("SELECT COUNT(*) AS `c` FROM `items`")) {
+			assertEquals(1, count(statement));
+		}
+		other.close();
+
+		// 连接池的标准数据源视图，关闭连接时归还并回滚未提交的事务
+		final DataSource view = source.getDataSource();
+		Connection connection = view.getConnection();
+		assertEquals(1, source.getPool().getActive());
+		connection.setAutoCommit(false);
+		connection.createStatement().executeUpdate("INSERT INTO `items` (`id`) VALUES (2)");
+		connection.close();
+		assertTrue(connection.isClosed());
+		assertEquals(0, source.getPool().getActive());
+		assertEquals(1, source.getPool().size());
+
+		connection = view.getConnection();
+		assertTrue(connection.getAutoCommit());
+		try (ResultSet result = connection.createStatement().executeQuery("SELECT COUNT(*) FROM `items`")) {
+			assertTrue(result.next());
+			assertEquals(1, result.getInt(1));
+		}
+		connection.close();
+		assertEquals(1, source.getPool().size());
+
+		// 归还连接时关闭经代理创建且未关闭的语句
+		connection = view.getConnection();
+		final java.sql.Statement created = connection.createStatement();
+		final PreparedStatement prepared = connection.prepareStatement("SELECT COUNT(*) FROM `items`");
+		final CallableStatement called = connection.prepareCall("SELECT COUNT(*) FROM `items`");
+		assertSame(connection, prepared.getConnection());
+		final java.sql.Statement closed = connection.createStatement();
+		closed.close();
+		assertTrue(closed.isClosed());
+		connection.close();
+		assertTrue(created.isClosed());
+		assertTrue(prepared.isClosed());
+		assertTrue(called.isClosed());
+		assertEquals(0, source.getPool().getActive());
+		source.close();
+	}
+}
@@ -0,0 +1,90 @@
+package com.joyzl.database.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.joyzl.database.Database;
+import com.joyzl.database.DatabaseSource;
+import com.joyzl.database.Dialect;
+import com.joyzl.database.PoolOptions;
+import com.joyzl.database.Statement;
+
+/**
+ * 数据库方言测试，语法在嵌入式数据库H2中执行
+ *
+ * @author ZhangXi
+ * @date 2026年10月14日
+ */
+class TestDialect {
+
+	@Test
+	void testDialects() {
+		assertEquals("MySQL", Dialect.of(Database.MYSQL).getName());
+		assertEquals("Oracle", Dialect.of(Database.ORACLE).getName());
+		// 推荐连接属性默认不附加
+		assertFalse(new PoolOptions().isDialectProperties());
+		assertEquals("H2", Dialect.of(Database.H2).getName());
+		assertThrows(IllegalArgumentException.class, () -> Dialect.of(0));
+
+		final Dialect mysql = Dialect.of(Database.MYSQL);
+		assertEquals("true", mysql.getProperties().getProperty("rewriteBatchedStatements"));
+		assertEquals(Integer.MIN_VALUE, mysql.getStreamingFetchSize());
+		assertTrue(mysql.isGeneratedKeys("INSERT"));
+		assertFalse(mysql.isGeneratedKeys("SELECT"));
+		assertEquals("INSERT INTO users (id,name) VALUES (?id,?name) AS new ON DUPLICATE KEY UPDATE name=new.name", mysql.upsert("users", new String[] { "id" }, new String[] { "name" }));
+		assertEquals("INSERT IGNORE INTO users (id) VALUES (?id)", mysql.upsert("users", new String[] { "id" }, new String[0]));
+		assertEquals("SELECT 1 FROM DUAL", Dialect.of(Database.ORACLE).getValidationQuery());
+		assertEquals("MERGE INTO users T USING (SELECT ?id AS id,?name AS name FROM DUAL) S ON (T.id=S.id) WHEN MATCHED THEN UPDATE SET T.name=S.name WHEN NOT MATCHED THEN INSERT (id,name) VALUES (S.id,S.name)",
+			Dialect.of(Database.ORACLE).upsert("users", new String[] { "id" }, new String[] { "name" }));
+	}
+
+	@Test
+	void testUpsert() {
+		final DatabaseSource source = Database.initialize("dialect", Database.H2, "jdbc:h2:mem:dialect;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		try (Statement statement = source.instance("CREATE TABLE users (id INT PRIMARY KEY,name VARCHAR(32))")) {
+			statement.execute();
+		}
+
+		final String sql = source.getDialect().upsert("users", new String[] { "id" }, new String[] { "name" });
+		for (String name : new String[] { "插入", "更新" }) {
+			try (Statement statement = source.instance(sql)) {
+				statement.setValue("id", 1);
+				statement.setValue("name", name);
+				assertTrue(statement.execute());
+			}
+		}
+		try (Statement statement = source.instance("SELECT COUNT(*) AS c,MAX(name) AS name FROM users")) {
+			assertTrue(statement.execute());
+			assertTrue(statement.nextRecord());
+			assertEquals(1, statement.getValue("c", 0));
+			assertEquals("更新", statement.getValue("name", ""));
+		}
+		source.close();
+	}
+
+	@Test
+	void testGeneratedKeys() {
+		final DatabaseSource source = Database.initialize("keys", Database.H2, "jdbc:h2:mem:keys;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		try (Statement statement = source.instance("CREATE TABLE items (id INT AUTO_INCREMENT PRIMARY KEY,name VARCHAR(32))")) {
+			statement.execute();
+		}
+		// 插入语句请求返回自动生成的键
+		try (Statement statement = source.instance("INSERT INTO items (name) VALUES (?name)")) {
+			statement.setValue("name", "插入");
+			assertTrue(statement.execute());
+			assertEquals(1, statement.getAutoId());
+		}
+		// 其它语句不请求
+		try (Statement statement = source.instance("UPDATE items SET name=?name")) {
+			statement.setValue("name", "更新");
+			assertTrue(statement.execute());
+			assertEquals(1, statement.getUpdatedCount());
+			assertFalse(statement.nextAutoId());
+		}
+		source.close();
+	}
+}
@@ -0,0 +1,149 @@
+package com.joyzl.database.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Types;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.joyzl.database.NamedSQL;
+
+/**
+ * 命名参数SQL分析及缓存测试，对比每次分析与缓存获取的耗时
+ *
+ * @author ZhangXi
+ * @date 2026年10月14日
+ */
+class TestNamedSQL {
+
+	final static String SQL = "SELECT `id`,`name`,`email` FROM `users` WHERE `status`=?status AND `created`>?created AND `name` LIKE ?name ORDER BY `id` LIMIT ?limit";
+	final static int ROUNDS = 1000000;
+	final static int THREADS = 8;
+
+	@Test
+	void testParse() {
+		NamedSQL sql = NamedSQL.get(SQL);
+		assertEquals("SELECT", sql.getSQLCommand());
+		assertTrue(sql.isQuery());
+		assertArrayEquals(new String[] { "status", "created", "name", "limit" }, sql.getNames());
+		assertEquals("SELECT `id`,`name`,`email` FROM `users` WHERE `status`=? AND `created`>? AND `name` LIKE ? ORDER BY `id` LIMIT ?", sql.getExcuteSQL());
+
+		sql = NamedSQL.get("{CALL demoSp(?p1, ?p2:INTEGER)}");
+		assertTrue(sql.isCall());
+		assertEquals("{CALL demoSp(?, ?)}", sql.getExcuteSQL());
+		assertNull(sql.getTypes()[0]);
+		assertEquals(Types.INTEGER, sql.getTypes()[1]);
+
+		// 共用实例不可修改
+		sql.getNames()[0] = "other";
+		assertEquals("p1", sql.getNames()[0]);
+		assertThrows(IllegalArgumentException.class, () -> NamedSQL.get(null));
+	}
+
+	@Test
+	void testQuery() {
+		// 普通查询可路由到从库
+		assertTrue(NamedSQL.get("SELECT `id`,`intro` FROM `users` WHERE `id`=?id").isQuery());
+		assertTrue(NamedSQL.get("SELECT COUNT(*) FROM `orders` WHERE `user`=?user").isQuery());
+
+		// 锁定读和依赖会话状态的查询须在主库执行
+		assertFalse(NamedSQL.get("SELECT * FROM `users` WHERE `id`=?id FOR UPDATE").isQuery());
+		assertFalse(NamedSQL.get("SELECT * FROM `users` WHERE `id`=?id LOCK IN SHARE MODE").isQuery());
+		assertFalse(NamedSQL.get("SELECT LAST_INSERT_ID()").isQuery());
+		assertFalse(NamedSQL.get("SELECT GET_LOCK(?name, 10)").isQuery());
+		assertFalse(NamedSQL.get("SELECT release_lock(?name)").isQuery());
+		assertFalse(NamedSQL.get("SELECT nextval('order_seq')").isQuery());
+		assertFalse(NamedSQL.get("SELECT NEXT VALUE FOR `order_seq`").isQuery());
+		assertFalse(NamedSQL.get("SELECT order_seq.NEXTVAL FROM DUAL").isQuery());
+		assertFalse(NamedSQL.get("SELECT `name` INTO @name FROM `users` WHERE `id`=?id").isQuery());
+		assertFalse(NamedSQL.get("SELECT FOUND_ROWS()").isQuery());
+		assertFalse(NamedSQL.get("UPDATE `users` SET `name`=?name WHERE `id`=?id").isQuery());
+	}
+
+	@Test
+	void testSlots() {
+		final NamedSQL sql = NamedSQL.get("UPDATE `users` SET `name`=?name,`alias`=?name WHERE `id`=?id OR `parent`=?id");
+		assertEquals(4, sql.getNames().length);
+		assertEquals(2, sql.getSlotCount());
+		assertEquals(0, sql.slot("name"));
+		assertEquals(1, sql.slot("id"));
+		assertThrows(IllegalArgumentException.class, () -> sql.slot("other"));
+	}
+
+	@Test
+	void testCache() {
+		final NamedSQL hot = NamedSQL.get(SQL);
+		assertSame(hot, NamedSQL.get(SQL));
+		assertNotSame(hot, NamedSQL.parse(SQL));
+
+		// 超过上限时淘汰未再次使用的动态SQL，常用语句保留
+		final int size = NamedSQL.getCacheSize();
+		NamedSQL.setCacheSize(100);
+		try {
+			for (int index = 0; index < 1000; index++) {
+				NamedSQL.get("SELECT * FROM `users` WHERE `id`=" + index);
+				assertSame(hot, NamedSQL.get(SQL));
+				assertTrue(NamedSQL.select().size() <= 100);
+			}
+		} finally {
+			NamedSQL.setCacheSize(size);
+		}
+	}
+
+	@Test
+	void testBenchmark() throws Exception {
+		// 预热
+		for (int index = 0; index < ROUNDS; index++) {
+			NamedSQL.parse(SQL);
+			NamedSQL.get(SQL);
+		}
+
+		long time = System.nanoTime();
+		for (int index = 0; index < ROUNDS; index++) {
+			NamedSQL.parse(SQL);
+		}
+		final long parsed = System.nanoTime() - time;
+
+		time = System.nanoTime();
+		for (int index = 0; index < ROUNDS; index++) {
+			NamedSQL.get(SQL);
+		}
+		final long cached = System.nanoTime() - time;
+
+		// 多线程同时获取
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch end = new CountDownLatch(THREADS);
+		for (int index = 0; index < THREADS; index++) {
+			final Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					for (int r = 0; r < ROUNDS; r++) {
+						NamedSQL.get(SQL);
+					}
+				} catch (InterruptedException e) {
+				} finally {
+					end.countDown();
+				}
+			});
+			thread.setDaemon(true);
+			thread.start();
+		}
+		time = System.nanoTime();
+		start.countDown();
+		assertTrue(end.await(1, TimeUnit.MINUTES));
+		final long concurrent = System.nanoTime() - time;
+
+		System.out.printf("NamedSQL parse: %.1f ns/op, cached: %.1f ns/op, cached %d threads: %.1f ns/op%n", //
+			(double) parsed / ROUNDS, (double) cached / ROUNDS, THREADS, (double) concurrent / ROUNDS / THREADS);
+		assertTrue(cached < parsed);
+	}
+}
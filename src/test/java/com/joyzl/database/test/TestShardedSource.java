@@ -0,0 +1,251 @@
+package com.joyzl.database.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.joyzl.database.Database;
+import com.joyzl.database.DatabaseSource;
+import com.joyzl.database.PoolOptions;
+import com.joyzl.database.ShardedSource;
+import com.joyzl.database.Statement;
+
+/**
+ * 分片数据源测试，使用两个独立的嵌入式数据库H2作为分片
+ *
+ * @author ZhangXi
+ * @date 2026年10月14日
+ */
+class TestShardedSource {
+
+	static DatabaseSource shard0;
+	static DatabaseSource shard1;
+	static ShardedSource users;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		shard0 = Database.initialize("shard0", Database.H2, "jdbc:h2:mem:shard0;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		shard1 = Database.initialize("shard1", Database.H2, "jdbc:h2:mem:shard1;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", new PoolOptions(2));
+		users = new ShardedSource("user", shard0, shard1);
+		for (DatabaseSource shard : users.getShards()) {
+			try (Statement statement = shard.instance("CREATE TABLE `users` (`id` INT PRIMARY KEY,`name` VARCHAR(32))")) {
+				statement.execute();
+			}
+		}
+		try (Statement statement = users.instance("INSERT INTO `users` (`id`,`name`) VALUES (?user,?name)")) {
+			for (int id = 1; id <= 6; id++) {
+				// 分片键之前设置的参数在路由时重放
+				statement.setValue("name", "姓名" + id);
+				statement.setValue("user", id);
+				assertTrue(statement.execute());
+			}
+		}
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() throws Exception {
+		shard0.close();
+		shard1.close();
+	}
+
+	static int count(DatabaseSource source) {
+		try (Statement statement = source.instance("SELECT COUNT(*) AS `c` FROM `users`")) {
+			assertTrue(statement.execute());
+			assertTrue(statement.nextRecord());
+			return statement.getValue("c", 0);
+		}
+	}
+
+	@Test
+	void testRoute() {
+		assertEquals(0, users.route(4));
+		assertEquals(1, users.route(5L));
+		assertEquals(users.route("13883833982"), users.route("13883833982"));
+		assertThrows(IllegalArgumentException.class, () -> users.route(null));
+
+		// 整数按值取模
+		assertEquals(3, count(shard0));
+		assertEquals(3, count(shard1));
+	}
+
+	@Test
+	void testSelect() {
+		try (Statement statement = users.instance("SELECT `id` FROM `users` WHERE `id`=?user")) {
+			for (int id = 1; id <= 6; id++) {
+				// 重复使用时按新的分片键重新路由
+				statement.setValue("user", id);
+				assertTrue(statement.execute());
+				assertTrue(statement.nextRecord());
+				assertEquals(id, statement.getValue("id", 0));
+				assertFalse(statement.nextRecord());
+			}
+		}
+	}
+
+	@Test
+	void testUnrouted() {
+		try (Statement statement = users.instance("SELECT `id` FROM `users`")) {
+			assertThrows(IllegalStateException.class, () -> statement.execute());
+		}
+
+		users.setBroadcast(true);
+		try (Statement statement = users.instance("SELECT `id` FROM `users`")) {
+			assertTrue(statement.execute());
+			int records = 0;
+			while (statement.nextRecord()) {
+				records++;
+			}
+			assertEquals(6, records);
+		}
+		try (Statement statement = users.instance("UPDATE `users` SET `name`=?name WHERE `id`>?id")) {
+			statement.setValue("name", "广播");
+			statement.setValue("id", 4);
+			assertTrue(statement.execute());
+			assertEquals(2, statement.getUpdatedCount());
+		}
+		// 部分分片执行失败时等待其它分片结束后抛出，连接全部归还
+		try (Statement statement = users.instance("UPDATE `users` SET `id`=`id`/MOD(`id`,2)")) {
+			assertThrows(RuntimeException.class, () -> statement.execute());
+		} finally {
+			users.setBroadcast(false);
+		}
+		assertEquals(0, shard0.getPool().getActive());
+		assertEquals(0, shard1.getPool().getActive());
+	}
+
+	@Test
+	void testMerge() {
+		users.setBroadcast(true);
+		try {
+			// 按排序列多路归并
+			try (Statement statement = users.instance("SELECT `id`,`name` FROM `users` ORDER BY `users`.`id` DESC")) {
+				assertTrue(statement.execute());
+				for (int id = 6; id >= 1; id--) {
+					assertTrue(statement.nextRecord());
+					assertEquals(id, statement.getValue("id", 0));
+				}
+				assertFalse(statement.nextRecord());
+			}
+			// 合并后截取
+			try (Statement statement = users.instance("SELECT `id` FROM `users` ORDER BY `id` LIMIT 3")) {
+				assertTrue(statement.execute());
+				for (int id = 1; id <= 3; id++) {
+					assertTrue(statement.nextRecord());
+					assertEquals(id, statement.getValue("id", 0));
+				}
+				assertFalse(statement.nextRecord());
+			}
+			// 聚合合并
+			try (Statement statement = users.instance("SELECT COUNT(*) AS `c`,SUM(`id`) AS `s`,MIN(`id`) AS `min`,MAX(`id`) AS `max` FROM `users` WHERE `id`>?id")) {
+				statement.setValue("id", 0);
+				assertTrue(statement.execute());
+				assertTrue(statement.nextRecord());
+				assertEquals(6, statement.getValue("c", 0));
+				assertEquals(21L, statement.getValue("s", 0L));
+				assertEquals(1, statement.getValue("min", 0));
+				assertEquals(6, statement.getValue("max", 0));
+				assertFalse(statement.nextRecord());
+			}
+			// 按分组列排序的分组聚合合并
+			try (Statement statement = users.instance("SELECT MOD(`id`,3) AS `g`,COUNT(*) AS `c` FROM `users` GROUP BY MOD(`id`,3) ORDER BY `g`")) {
+				assertTrue(statement.execute());
+				for (int g = 0; g < 3; g++) {
+					assertTrue(statement.nextRecord());
+					assertEquals(g, statement.getValue("g", -1));
+					assertEquals(2, statement.getValue("c", 0));
+				}
+				assertFalse(statement.nextRecord());
+			}
+			// 无法合并的聚合在执行前拒绝
+			try (Statement statement = users.instance("SELECT AVG(`id`) AS `a` FROM `users`")) {
+				assertThrows(IllegalStateException.class, () -> statement.execute());
+			}
+			// 分组聚合未按非聚合列排序时同组记录不相邻
+			for (String sql : new String[] { //
+					"SELECT MOD(`id`,3) AS `g`,COUNT(*) AS `c` FROM `users` GROUP BY MOD(`id`,3)", //
+					"SELECT MOD(`id`,3) AS `g`,COUNT(*) AS `c` FROM `users` GROUP BY MOD(`id`,3) ORDER BY `c`", //
+					"SELECT MOD(`id`,3) AS `g`,MOD(`id`,2) AS `h`,COUNT(*) AS `c` FROM `users` GROUP BY MOD(`id`,3),MOD(`id`,2) ORDER BY `g`" }) {
+				try (Statement statement = users.instance(sql)) {
+					assertThrows(IllegalStateException.class, () -> statement.execute());
+				}
+			}
+			try (Statement statement = users.instance("SELECT MOD(`id`,3) `g`,COUNT(*) `c` FROM `users` GROUP BY MOD(`id`,3) ORDER BY 1 DESC")) {
+				assertTrue(statement.execute());
+				for (int g = 2; g >= 0; g--) {
+					assertTrue(statement.nextRecord());
+					assertEquals(g, statement.getValue("g", -1));
+					assertEquals(2, statement.getValue("c", 0));
+				}
+				assertFalse(statement.nextRecord());
+			}
+			// 截取数量为参数或 FETCH FIRST 时同样合并后截取
+			try (Statement statement = users.instance("SELECT `id` FROM `users` ORDER BY `id` LIMIT ?limit")) {
+				statement.setValue("limit", 3);
+				assertEquals(List.of(1, 2, 3), ids(statement));
+			}
+			try (Statement statement = users.instance("SELECT `id` FROM `users` ORDER BY `id` DESC FETCH FIRST 2 ROWS ONLY")) {
+				assertEquals(List.of(6, 5), ids(statement));
+			}
+			// 去重和无聚合的分组合并各分片的相同记录
+			for (String sql : new String[] { //
+					"SELECT DISTINCT MOD(`id`,3) AS `id` FROM `users` ORDER BY `id`", //
+					"SELECT MOD(`id`,3) AS `id` FROM `users` GROUP BY MOD(`id`,3) ORDER BY `id`" }) {
+				try (Statement statement = users.instance(sql)) {
+					assertEquals(List.of(0, 1, 2), ids(statement));
+				}
+			}
+			for (String sql : new String[] { //
+					"SELECT DISTINCT MOD(`id`,3) AS `id` FROM `users`", //
+					"SELECT MOD(`id`,3) AS `id` FROM `users` GROUP BY MOD(`id`,3)", //
+					"SELECT DISTINCT * FROM `users` ORDER BY `id`", //
+					"SELECT MOD(`id`,3) AS `g`,COUNT(*) AS `c` FROM `users` GROUP BY MOD(`id`,3) HAVING COUNT(*)>1 ORDER BY `g`", //
+					"SELECT `id` FROM `users` ORDER BY `id` LIMIT 1+1" }) {
+				try (Statement statement = users.instance(sql)) {
+					assertThrows(IllegalStateException.class, () -> statement.execute());
+				}
+			}
+			// 带偏移量的 LIMIT 在各分片分别跳过记录
+			for (String sql : new String[] { "SELECT `id` FROM `users` ORDER BY `id` LIMIT 3 OFFSET 2", "SELECT `id` FROM `users` ORDER BY `id` LIMIT 2,3" }) {
+				try (Statement statement = users.instance(sql)) {
+					assertThrows(IllegalStateException.class, () -> statement.execute());
+				}
+			}
+		} finally {
+			users.setBroadcast(false);
+		}
+	}
+
+	static List<Integer> ids(Statement statement) {
+		final List<Integer> ids = new ArrayList<>();
+		assertTrue(statement.execute());
+		while (statement.nextRecord()) {
+			ids.add(statement.getValue("id", 0));
+		}
+		return ids;
+	}
+
+	@Test
+	void testTransaction() {
+		try (Statement statement = users.instance("UPDATE `users` SET `name`=?name WHERE `id`=?user", true)) {
+			statement.setValue("name", "事务");
+			statement.setValue("user", 2);
+			assertTrue(statement.execute());
+			// 事务限于单个分片
+			assertThrows(IllegalStateException.class, () -> statement.setValue("user", 3));
+		}
+		try (Statement statement = users.instance("SELECT `name` FROM `users` WHERE `id`=?user")) {
+			statement.setValue("user", 2);
+			assertTrue(statement.execute());
+			assertTrue(statement.nextRecord());
+			assertEquals("事务", statement.getValue("name", ""));
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package com.joyzl.database.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.joyzl.database.Database;
+import com.joyzl.database.PoolOptions;
+import com.joyzl.database.Statement;
+
+/**
+ * 虚拟线程压力测试，使用嵌入式数据库H2，需要 Java 21 运行，否则跳过<br>
+ * 通过 jdk.tracePinnedThreads 检查连接池等待时是否占用载体线程，并与平台线程对比吞吐量<br>
+ * 执行 mvn -P jdk21 test 以 Java 21 工具链运行
+ *
+ * @author ZhangXi
+ * @date 2026年10月14日
+ */
+class TestVirtualThreads {
+
+	static {
+		// 必须在首个虚拟线程创建之前设置
+		System.setProperty("jdk.tracePinnedThreads", "short");
+	}
+
+	final static int TASKS = 10000;
+	final static int PLATFORMS = 200;
+	final static int MAXIMUM = 10;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		final PoolOptions options = new PoolOptions(MAXIMUM);
+		options.setBounded(true);
+		options.setLimited(true);
+		options.setBorrowTimeout(60000);
+		options.setMinimumIdle(MAXIMUM);
+		options.setInitializationTimeout(10000);
+		Database.initialize(Database.H2, "jdbc:h2:mem:virtual;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", options);
+
+		try (Statement statement = Database.instance("CREATE TABLE `users` (`id` INT PRIMARY KEY,`name` VARCHAR(32))")) {
+			statement.execute();
+		}
+		try (Statement statement = Database.instance("INSERT INTO `users` (`id`,`name`) VALUES (?id,?name)")) {
+			for (int index = 0; index < 100; index++) {
+				statement.setValue("id", index);
+				statement.setValue("name", "姓名" + index);
+				statement.batch();
+			}
+			assertTrue(statement.execute());
+		}
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() throws Exception {
+		// 不注销数据库驱动，以免影响其它测试
+		Database.source().close();
+	}
+
+	static void select(int index, AtomicLong records) {
+		try (Statement statement = Database.instance("SELECT * FROM `users` WHERE `id`=?id")) {
+			statement.setValue("id", index % 100);
+			if (statement.execute()) {
+				while (statement.nextRecord()) {
+					if (statement.getValue("id", -1) == index % 100) {
+						records.incrementAndGet();
+					}
+				}
+			}
+		}
+	}
+
+	static long run(ExecutorService executor, AtomicLong records) throws Exception {
+		final long time = System.nanoTime();
+		for (int index = 0; index < TASKS; index++) {
+			final int i = index;
+			executor.execute(() -> select(i, records));
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+		return System.nanoTime() - time;
+	}
+
+	@Test
+	void testVirtualThreads() throws Exception {
+		final ExecutorService virtuals;
+		try {
+			virtuals = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException e) {
+			Assumptions.abort("虚拟线程需要 Java 21");
+			return;
+		}
+
+		// 预热，避免即时编译影响对比
+		run(Executors.newFixedThreadPool(PLATFORMS), new AtomicLong());
+
+		// jdk.tracePinnedThreads 输出到 System.out
+		final PrintStream out = System.out;
+		final ByteArrayOutputStream pinned = new ByteArrayOutputStream();
+		final AtomicLong virtualRecords = new AtomicLong();
+		final long virtualTime;
+		System.setOut(new PrintStream(pinned, true, StandardCharsets.UTF_8));
+		try {
+			virtualTime = run(virtuals, virtualRecords);
+		} finally {
+			System.setOut(out);
+		}
+		assertEquals(TASKS, virtualRecords.get());
+
+		// 连接池代码不得在持有监视器时阻塞
+		final String trace = pinned.toString(StandardCharsets.UTF_8);
+		for (String line : trace.split("\\R")) {
+			assertFalse(line.contains("com.joyzl.database") && line.contains("<== monitors"), trace);
+		}
+
+		final AtomicLong platformRecords = new AtomicLong();
+		final long platformTime = run(Executors.newFixedThreadPool(PLATFORMS), platformRecords);
+		assertEquals(TASKS, platformRecords.get());
+
+		System.out.printf("Virtual threads:  %d tasks, %d ms, %d tasks/s%n", TASKS, virtualTime / 1000000, TASKS * 1000000000L / virtualTime);
+		System.out.printf("Platform threads: %d tasks, %d ms, %d tasks/s (%d threads)%n", TASKS, platformTime / 1000000, TASKS * 1000000000L / platformTime, PLATFORMS);
+		System.out.printf("Pinned traces: %d lines%n", trace.isBlank() ? 0 : trace.split("\\R").length);
+	}
+}